@@ -4,14 +4,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.booking.dto.BookingState;
+import ru.practicum.booking.dto.BookingStatusBatchDto;
 import ru.practicum.booking.dto.CreateBookingDto;
 import ru.practicum.client.BaseClient;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class BookingClient extends BaseClient {
@@ -19,33 +22,53 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> create(Long userId, CreateBookingDto createBookingDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(Long userId, CreateBookingDto createBookingDto) {
         return post("", userId, createBookingDto);
     }
 
-    public ResponseEntity<Object> updateStatusBooking(Long userId, Long bookingId, Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> updateStatusBooking(Long userId, Long bookingId, Boolean approved) {
         return patch(("/" + bookingId + "?approved=" + approved), userId, null);
     }
 
-    public ResponseEntity<Object> getBookingById(Long userId, Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> updateStatusBookings(Long userId, Boolean approved,
+                                                                       BookingStatusBatchDto batchDto) {
+        return patch(("/bulk?approved=" + approved), userId, batchDto);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getBookingById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsForBooker(Long userId, BookingState state) {
-        return get("?state={state}", userId, Map.of("state", state.name()));
+    public CompletableFuture<ResponseEntity<Object>> getAllBookingsForBooker(Long userId, BookingState state, String cursor,
+                                                          Integer size, String ifNoneMatch) {
+        return getConditional(pagePath("", cursor), userId, pageParameters(state, cursor, size), ifNoneMatch);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getBookingsForOwner(Long userId, BookingState state, String cursor, Integer size) {
+        return get(pagePath("/owner", cursor), userId, pageParameters(state, cursor, size));
+    }
+
+    private static String pagePath(String path, String cursor) {
+        return path + "?state={state}&size={size}" + (cursor != null ? "&cursor={cursor}" : "");
     }
 
-    public ResponseEntity<Object> getBookingsForOwner(Long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of("state", state);
-        return get("/owner", userId, parameters);
+    private static Map<String, Object> pageParameters(BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 }
@@ -1,17 +1,22 @@
 package ru.practicum.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.booking.dto.BookingState;
+import ru.practicum.booking.dto.BookingStatusBatchDto;
 import ru.practicum.booking.dto.CreateBookingDto;
 
 import static ru.practicum.util.Constants.USER_ID_HEADER;
 
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
@@ -21,7 +26,7 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(
+    public CompletableFuture<ResponseEntity<Object>> createBooking(
             @RequestHeader(USER_ID_HEADER) Long userId,
             @RequestBody @Valid CreateBookingDto createBookingDto) {
         log.info("Получен HTTP-запрос на добавление бронирования: {}", createBookingDto);
@@ -29,32 +34,50 @@ public class BookingController {
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateStatusBooking(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                      @PathVariable("bookingId") Long bookingId,
-                                                      @RequestParam(name = "approved", required = true) Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> updateStatusBooking(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @PathVariable("bookingId") Long bookingId,
+            @RequestParam(name = "approved", required = true) Boolean approved) {
         log.info("Получен HTTP-запрос на обновление бронирования");
         return bookingClient.updateStatusBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/bulk")
+    public CompletableFuture<ResponseEntity<Object>> updateStatusBookings(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam(name = "approved", required = true) Boolean approved,
+            @RequestBody @Valid BookingStatusBatchDto batchDto) {
+        log.info("Получен HTTP-запрос на обновление {} бронирований", batchDto.getBookingIds().size());
+        return bookingClient.updateStatusBookings(userId, approved, batchDto);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                 @PathVariable("bookingId") Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBookingById(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @PathVariable("bookingId") Long bookingId) {
         log.info("Получен HTTP-запрос на получение бронирования по id: {}", bookingId);
         return bookingClient.getBookingById(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsForBooker(@RequestHeader(USER_ID_HEADER) long userId,
-                                                          @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+    public CompletableFuture<ResponseEntity<Object>> getAllBookingsForBooker(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Positive Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Get bookings for user {} with state {}", userId, state);
-        return bookingClient.getAllBookingsForBooker(userId, state);
+        return bookingClient.getAllBookingsForBooker(userId, state, cursor, size, ifNoneMatch);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsForOwner(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                         @RequestParam(defaultValue = "ALL") BookingState state) {
-        return bookingClient.getBookingsForOwner(userId, state);
+    public CompletableFuture<ResponseEntity<Object>> getAllBookingsForOwner(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Positive Integer size) {
+        return bookingClient.getBookingsForOwner(userId, state, cursor, size);
     }
 }
@@ -0,0 +1,19 @@
+package ru.practicum.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStatusBatchDto {
+    @NotEmpty(message = "Список бронирований не должен быть пустым")
+    @Size(max = 500, message = "В одном запросе можно изменить не более 500 бронирований")
+    List<@NotNull(message = "Идентификатор бронирования не должен быть пустым") Long> bookingIds;
+}
@@ -0,0 +1,84 @@
+package ru.practicum.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Component
+@ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "async")
+public class AsyncServerClient implements DisposableBean {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "content-length", "keep-alive", "transfer-encoding", "upgrade");
+
+    private final ObjectMapper objectMapper;
+    private final Duration responseTimeout;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+
+    public AsyncServerClient(ObjectMapper objectMapper,
+                             @Value("${shareit-server.client.async-threads:4}") int asyncThreads,
+                             @Value("${shareit-server.http.connect-timeout:2s}") Duration connectTimeout,
+                             @Value("${shareit-server.http.response-timeout:30s}") Duration responseTimeout) {
+        this.objectMapper = objectMapper;
+        this.responseTimeout = responseTimeout;
+        this.executor = Executors.newFixedThreadPool(asyncThreads);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(responseTimeout)
+                .method(method.name(), body != null
+                        ? HttpRequest.BodyPublishers.ofByteArray(toJson(body))
+                        : HttpRequest.BodyPublishers.noBody());
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(this::toResponseEntity);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private ResponseEntity<byte[]> toResponseEntity(HttpResponse<byte[]> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.statusCode());
+        response.headers().map().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                responseBuilder.header(name, values.toArray(String[]::new));
+            }
+        });
+        return responseBuilder.body(response.body());
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -1,94 +1,177 @@
 package ru.practicum.client;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static ru.practicum.util.Constants.NEXT_CURSOR_HEADER;
 
 public class BaseClient {
+    private static final List<String> FORWARDED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL, HttpHeaders.LOCATION, NEXT_CURSOR_HEADER);
+
     protected final RestTemplate rest;
+    private AsyncServerClient asyncClient;
+    private ServerResponseCache responseCache;
+    private InFlightRequests inFlightRequests;
 
     public BaseClient(RestTemplate rest) {
         this.rest = rest;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    @Autowired(required = false)
+    public void setAsyncClient(AsyncServerClient asyncClient) {
+        this.asyncClient = asyncClient;
+    }
+
+    @Autowired(required = false)
+    public void setResponseCache(ServerResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Autowired(required = false)
+    public void setInFlightRequests(InFlightRequests inFlightRequests) {
+        this.inFlightRequests = inFlightRequests;
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected CompletableFuture<ResponseEntity<Object>> getConditional(String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable String ifNoneMatch) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return exchange(HttpMethod.GET, path, headers, parameters, null)
+                .thenApply(BaseClient::prepareGatewayResponse);
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> getRevalidated(String path, Long userId, @Nullable String ifNoneMatch) {
+        String cacheKey = rest.getUriTemplateHandler().expand(path).toString();
+        ResponseEntity<byte[]> cached = responseCache != null ? responseCache.get(cacheKey) : null;
+        HttpHeaders headers = defaultHeaders(userId);
+        String validator = cached != null ? cached.getHeaders().getETag() : ifNoneMatch;
+        if (validator != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, validator);
+        }
+        return exchange(HttpMethod.GET, path, headers, null, null)
+                .thenApply(response -> {
+                    ResponseEntity<byte[]> current = response;
+                    if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+                        current = cached;
+                    } else if (responseCache != null) {
+                        if (response.getStatusCode().is2xxSuccessful() && response.getHeaders().getETag() != null) {
+                            responseCache.put(cacheKey, response);
+                        } else {
+                            responseCache.evict(cacheKey);
+                        }
+                    }
+                    if (current.getStatusCode().is2xxSuccessful()
+                            && matches(ifNoneMatch, current.getHeaders().getETag())) {
+                        current = new ResponseEntity<>(current.getHeaders(), HttpStatus.NOT_MODIFIED);
+                    }
+                    return prepareGatewayResponse(current);
+                });
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return exchange(method, path, defaultHeaders(userId), parameters, body)
+                .thenApply(BaseClient::prepareGatewayResponse);
+    }
+
+    private <T> CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        if (method == HttpMethod.GET && inFlightRequests != null) {
+            String key = uri + "|" + headers.getFirst("X-Sharer-User-Id") + "|" + headers.getIfNoneMatch();
+            return inFlightRequests.execute(key, () -> send(method, uri, path, headers, parameters, body));
+        }
+        return send(method, uri, path, headers, parameters, body);
+    }
+
+    private <T> CompletableFuture<ResponseEntity<byte[]>> send(HttpMethod method, URI uri, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (asyncClient != null) {
+            return asyncClient.exchange(method, uri, headers, body);
+        }
+        return CompletableFuture.completedFuture(sendRequest(method, path, headers, parameters, body));
+    }
+
+    private <T> ResponseEntity<byte[]> sendRequest(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
 
-        ResponseEntity<Object> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                return rest.exchange(path, method, requestEntity, byte[].class, parameters);
             }
+            return rest.exchange(path, method, requestEntity, byte[].class);
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return new ResponseEntity<>(e.getResponseBodyAsByteArray(), e.getResponseHeaders(), e.getStatusCode());
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -101,15 +184,31 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static boolean matches(@Nullable String ifNoneMatch, @Nullable String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
         }
+        return false;
+    }
 
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        for (String header : FORWARDED_HEADERS) {
+            List<String> values = response.getHeaders().get(header);
+            if (values != null) {
+                responseBuilder.header(header, values.toArray(String[]::new));
+            }
+        }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        byte[] body = response.getBody();
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
@@ -0,0 +1,69 @@
+package ru.practicum.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+public class InFlightRequests {
+    private final Map<String, CompletableFuture<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final Counter executed;
+    private final Counter coalesced;
+    private final Counter bypassed;
+
+    public InFlightRequests(@Value("${shareit-server.single-flight.max-keys:1000}") int maxKeys,
+                            MeterRegistry meterRegistry) {
+        this.maxKeys = maxKeys;
+        this.executed = counter(meterRegistry, "executed");
+        this.coalesced = counter(meterRegistry, "coalesced");
+        this.bypassed = counter(meterRegistry, "bypassed");
+        Gauge.builder("shareit.single-flight.in-flight", inFlight, Map::size)
+                .tag("name", "shareit-server")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> execute(String key,
+                                                             Supplier<CompletableFuture<ResponseEntity<byte[]>>> call) {
+        if (inFlight.size() >= maxKeys) {
+            bypassed.increment();
+            return call.get();
+        }
+        CompletableFuture<ResponseEntity<byte[]>> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        executed.increment();
+        try {
+            call.get().whenComplete((response, error) -> {
+                inFlight.remove(key, flight);
+                if (error != null) {
+                    flight.completeExceptionally(error);
+                } else {
+                    flight.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+        }
+        return flight;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("shareit.single-flight.requests")
+                .tag("name", "shareit-server")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class ServerResponseCache {
+    private final Map<String, ResponseEntity<byte[]>> entries;
+
+    public ServerResponseCache(@Value("${shareit-server.cache.max-entries:10000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ResponseEntity<byte[]>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized ResponseEntity<byte[]> get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key, ResponseEntity<byte[]> response) {
+        entries.put(key, response);
+    }
+
+    public synchronized void evict(String key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
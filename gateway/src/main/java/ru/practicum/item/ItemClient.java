@@ -5,7 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.client.BaseClient;
@@ -15,43 +15,66 @@ import ru.practicum.item.dto.UpdateItemDto;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> create(Long userId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> update(Long userId, Long itemId, UpdateItemDto updateItemDto) {
+    public CompletableFuture<ResponseEntity<Object>> update(Long userId, Long itemId, UpdateItemDto updateItemDto) {
         return patch("/" + itemId, userId, updateItemDto);
     }
 
-    public ResponseEntity<Object> findById(Long itemId) {
-        return get("/" + itemId);
+    public CompletableFuture<ResponseEntity<Object>> findById(Long itemId, String ifNoneMatch) {
+        return getRevalidated("/" + itemId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAllOwnerItems(Long userId) {
-        return get("", userId);
+    public CompletableFuture<ResponseEntity<Object>> getAllOwnerItems(Long userId, String ifNoneMatch) {
+        return getConditional("", userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
+    public CompletableFuture<ResponseEntity<Object>> searchItems(String text) {
         return get("/search?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8));
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CreateCommentDto createCommentDto) {
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return get("/" + itemId + "/availability?start={start}&end={end}", null,
+                Map.of("start", DATE_TIME_FORMAT.format(start), "end", DATE_TIME_FORMAT.format(end)));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getCalendar(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return get("/" + itemId + "/calendar?from={from}&to={to}", null, periodParameters(from, to));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getOwnerCalendar(Long userId, LocalDateTime from, LocalDateTime to) {
+        return get("/calendar?from={from}&to={to}", userId, periodParameters(from, to));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> addComment(Long userId, Long itemId, CreateCommentDto createCommentDto) {
         return post(("/" + itemId + "/comment"), userId, createCommentDto);
     }
 
+    private static Map<String, Object> periodParameters(LocalDateTime from, LocalDateTime to) {
+        return Map.of("from", DATE_TIME_FORMAT.format(from), "to", DATE_TIME_FORMAT.format(to));
+    }
+
 }
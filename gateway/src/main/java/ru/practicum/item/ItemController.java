@@ -3,14 +3,20 @@ package ru.practicum.item;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.item.dto.CreateCommentDto;
 import ru.practicum.item.dto.ItemDto;
 import ru.practicum.item.dto.UpdateItemDto;
 
 import static ru.practicum.util.Constants.USER_ID_HEADER;
 
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequestMapping("/items")
@@ -19,43 +25,87 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@Valid @RequestBody ItemDto itemDto,
-                              @RequestHeader(USER_ID_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> createItem(
+            @Valid @RequestBody ItemDto itemDto,
+            @RequestHeader(USER_ID_HEADER) Long userId) {
         log.info("Получен HTTP-запрос на добавление вещи: {}", itemDto);
         return itemClient.create(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@Valid @RequestBody UpdateItemDto itemDto,
-                              @PathVariable Long itemId,
-                              @RequestHeader(USER_ID_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> updateItem(
+            @Valid @RequestBody UpdateItemDto itemDto,
+            @PathVariable Long itemId,
+            @RequestHeader(USER_ID_HEADER) Long userId) {
         log.info("Получен HTTP-запрос на обновление вещи: {}", itemDto);
         return itemClient.update(itemId, userId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@PathVariable Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> getItem(
+            @PathVariable Long itemId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Получен HTTP-запрос на получение вещи по id: {}", itemId);
-        return itemClient.findById(itemId);
+        return itemClient.findById(itemId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserItems(@RequestHeader(USER_ID_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getUserItems(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Получен HTTP-запрос на получение всех вещей у пользователя с id: {}", userId);
-        return itemClient.getAllOwnerItems(userId);
+        return itemClient.getAllOwnerItems(userId, ifNoneMatch);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text) {
+    public CompletableFuture<ResponseEntity<Object>> searchItems(@RequestParam String text) {
         log.info("Получен HTTP-запрос на поиск вещи по тексту: {}", text);
         return itemClient.searchItems(text);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam LocalDateTime start,
+            @RequestParam LocalDateTime end) {
+        validatePeriod(start, end);
+        log.info("Получен HTTP-запрос на проверку занятости вещи с id: {} в период {} - {}", itemId, start, end);
+        return itemClient.getAvailability(itemId, start, end);
+    }
+
+    @GetMapping("/{itemId}/calendar")
+    public CompletableFuture<ResponseEntity<Object>> getCalendar(
+            @PathVariable Long itemId,
+            @RequestParam LocalDateTime from,
+            @RequestParam LocalDateTime to) {
+        validatePeriod(from, to);
+        log.info("Получен HTTP-запрос на получение календаря занятости вещи с id: {} за период {} - {}",
+                itemId, from, to);
+        return itemClient.getCalendar(itemId, from, to);
+    }
+
+    @GetMapping("/calendar")
+    public CompletableFuture<ResponseEntity<Object>> getOwnerCalendar(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam LocalDateTime from,
+            @RequestParam LocalDateTime to) {
+        validatePeriod(from, to);
+        log.info("Получен HTTP-запрос на получение календаря занятости вещей пользователя с id: {} за период {} - {}",
+                userId, from, to);
+        return itemClient.getOwnerCalendar(userId, from, to);
+    }
+
     @PostMapping("{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(USER_ID_HEADER) Long userId,
-                                             @PathVariable("itemId") Long itemId,
-                                             @Valid @RequestBody CreateCommentDto createCommentDto
-    ) {
+    public CompletableFuture<ResponseEntity<Object>> addComment(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @PathVariable("itemId") Long itemId,
+            @Valid @RequestBody CreateCommentDto createCommentDto) {
         return itemClient.addComment(userId, itemId, createCommentDto);
     }
+
+    private static void validatePeriod(LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Начало периода должно быть раньше его окончания");
+        }
+    }
 }
@@ -4,42 +4,44 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.client.BaseClient;
 import ru.practicum.itemRequest.dto.CreateItemRequestDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> createItemRequest(Long userId, CreateItemRequestDto createItemRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> createItemRequest(Long userId, CreateItemRequestDto createItemRequestDto) {
         return post("", userId, createItemRequestDto);
     }
 
-    public ResponseEntity<Object> getAllRequestsById(Long userId) {
-        return get("", userId);
+    public CompletableFuture<ResponseEntity<Object>> getAllRequestsById(Long userId, String ifNoneMatch) {
+        return getConditional("", userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> findAll(Long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> findAll(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of("from", from, "size", size);
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> findById(Long userId, Long requestId, String ifNoneMatch) {
+        return getRevalidated("/" + requestId, userId, ifNoneMatch);
     }
 }
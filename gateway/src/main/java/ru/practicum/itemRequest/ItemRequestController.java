@@ -2,12 +2,15 @@ package ru.practicum.itemRequest;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.itemRequest.dto.CreateItemRequestDto;
 
 import static ru.practicum.util.Constants.USER_ID_HEADER;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
@@ -15,26 +18,32 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(USER_ID_HEADER) Long userId,
-                                         @RequestBody @Valid CreateItemRequestDto createItemRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestBody @Valid CreateItemRequestDto createItemRequestDto) {
         return itemRequestClient.createItemRequest(userId, createItemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllRequestsById(@RequestHeader(USER_ID_HEADER) Long userId) {
-        return itemRequestClient.getAllRequestsById(userId);
+    public CompletableFuture<ResponseEntity<Object>> getAllRequestsById(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemRequestClient.getAllRequestsById(userId, ifNoneMatch);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                 @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                 @RequestParam(name = "size", defaultValue = "50") Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @RequestParam(name = "size", defaultValue = "50") Integer size) {
         return itemRequestClient.findAll(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                 @PathVariable("requestId") Long requestId) {
-        return itemRequestClient.findById(userId, requestId);
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @PathVariable("requestId") Long requestId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemRequestClient.findById(userId, requestId, ifNoneMatch);
     }
 }
@@ -4,13 +4,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.client.BaseClient;
 import ru.practicum.user.dto.UpdateUserDto;
 import ru.practicum.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 
 @Component
 public class UserClient extends BaseClient {
@@ -18,32 +20,33 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getUser(Long userId) {
-        return get("/" + userId);
+    public CompletableFuture<ResponseEntity<Object>> getUser(Long userId, String ifNoneMatch) {
+        return getRevalidated("/" + userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers() {
         return get(null);
     }
 
-    public ResponseEntity<Object> updateUser(UpdateUserDto updateUserDto, Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(UpdateUserDto updateUserDto, Long userId) {
         return patch("/" + userId, updateUserDto);
     }
 
-    public ResponseEntity<Object> deleteUser(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(Long userId) {
         return delete("/" + userId);
     }
 }
@@ -3,38 +3,45 @@ package ru.practicum.user;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.user.dto.UpdateUserDto;
 import ru.practicum.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
 public class UserController {
-   private final UserClient userClient;
+    private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> createUser(@Valid @RequestBody UserDto userDto) {
         log.info("Получен HTTP-запрос на добавление пользователя: {}", userDto);
         return userClient.createUser(userDto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUser(@PathVariable Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getUser(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Получен HTTP-запрос на получение пользователя по id: {}", userId);
-        return userClient.getUser(userId);
+        return userClient.getUser(userId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers() {
         log.info("Получен HTTP-запрос на получение всех пользователей");
         return userClient.getAllUsers();
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@Valid @RequestBody UpdateUserDto userDto, @PathVariable Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(
+            @Valid @RequestBody UpdateUserDto userDto,
+            @PathVariable Long userId) {
         log.info("Получен HTTP-запрос на обновление пользователя с id: {}", userId);
         return userClient.updateUser(userDto, userId);
     }
@@ -0,0 +1,75 @@
+package ru.practicum.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.booking.dto.BookingState;
+import ru.practicum.booking.dto.BookingStatusBatchDto;
+import ru.practicum.client.StubServer;
+import ru.practicum.client.StubServer.StubResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingClientTest {
+    private final StubServer server = new StubServer();
+    private final BookingClient client = new BookingClient(server.url(), new RestTemplateBuilder(),
+            new HttpComponentsClientHttpRequestFactory());
+
+    BookingClientTest() throws Exception {
+        server.respond(request -> StubResponse.json(200, "[]"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void updateStatusBookings_shouldPatchBulkWithIdsAndDecision() {
+        ResponseEntity<Object> response = client.updateStatusBookings(4L, true,
+                new BookingStatusBatchDto(List.of(1L, 2L))).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("PATCH", server.lastRequest().method());
+        assertEquals("/bookings/bulk", server.lastRequest().uri().getPath());
+        assertEquals("approved=true", server.lastRequest().uri().getQuery());
+        assertEquals("4", server.lastRequest().header("X-Sharer-User-Id"));
+        assertEquals("{\"bookingIds\":[1,2]}", server.lastRequest().bodyAsString());
+    }
+
+    @Test
+    void getBookingsForOwner_shouldSendCursorOnlyWhenPresent() {
+        client.getBookingsForOwner(4L, BookingState.FUTURE, null, 20).join();
+        assertEquals("/bookings/owner", server.lastRequest().uri().getPath());
+        assertEquals("state=FUTURE&size=20", server.lastRequest().uri().getQuery());
+
+        client.getBookingsForOwner(4L, BookingState.FUTURE, "abc", 20).join();
+        assertEquals("state=FUTURE&size=20&cursor=abc", server.lastRequest().uri().getQuery());
+    }
+
+    @Test
+    void getAllBookingsForBooker_shouldPassThroughNextCursor() {
+        server.respond(request -> StubResponse.json(200, "[]").header("X-Next-Cursor", "next-page"));
+
+        ResponseEntity<Object> response = client.getAllBookingsForBooker(4L, BookingState.ALL, null, 10, null).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("next-page", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals("/bookings", server.lastRequest().uri().getPath());
+        assertEquals("state=ALL&size=10", server.lastRequest().uri().getQuery());
+    }
+
+    @Test
+    void getBookingsForOwner_shouldPassThroughNextCursor() {
+        server.respond(request -> StubResponse.json(200, "[]").header("X-Next-Cursor", "owner-next"));
+
+        ResponseEntity<Object> response = client.getBookingsForOwner(4L, BookingState.ALL, "abc", 10).join();
+
+        assertEquals("owner-next", response.getHeaders().getFirst("X-Next-Cursor"));
+    }
+}
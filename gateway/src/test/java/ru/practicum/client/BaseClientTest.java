@@ -0,0 +1,204 @@
+package ru.practicum.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.client.StubServer.StubResponse;
+import ru.practicum.item.ItemClient;
+import ru.practicum.item.dto.CreateCommentDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaseClientTest {
+    private static final String ITEM_JSON = "{\"id\":1,\"name\":\"Дрель\"}";
+
+    private final StubServer server = new StubServer();
+    private final ServerResponseCache responseCache = new ServerResponseCache(100);
+    private AsyncServerClient asyncClient;
+
+    BaseClientTest() throws Exception {
+    }
+
+    @BeforeEach
+    void setUp() {
+        asyncClient = new AsyncServerClient(new ObjectMapper(), 2, Duration.ofSeconds(2), Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncClient.destroy();
+        server.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void findById_shouldServeCachedBodyWhenServerAnswersNotModified(boolean async) {
+        ItemClient client = itemClient(async);
+        server.respond(request -> "\"1\"".equals(request.header("If-None-Match"))
+                ? StubResponse.status(304).header("ETag", "\"1\"")
+                : StubResponse.json(200, ITEM_JSON).header("ETag", "\"1\""));
+
+        ResponseEntity<Object> first = client.findById(1L, null).join();
+        ResponseEntity<Object> second = client.findById(1L, null).join();
+
+        assertEquals(2, server.requests().size());
+        assertNull(server.requests().get(0).header("If-None-Match"));
+        assertEquals("\"1\"", server.requests().get(1).header("If-None-Match"));
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals(ITEM_JSON, body(second));
+        assertEquals("\"1\"", second.getHeaders().getETag());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void findById_shouldAnswerNotModifiedWhenClientTagMatches(boolean async) {
+        ItemClient client = itemClient(async);
+        server.respond(request -> StubResponse.json(200, ITEM_JSON).header("ETag", "\"2\""));
+        client.findById(1L, null).join();
+        server.respond(request -> StubResponse.status(304).header("ETag", "\"2\""));
+
+        ResponseEntity<Object> response = client.findById(1L, "\"2\"").join();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"2\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void findById_shouldPassThroughServerErrorAndEvictCachedEntry(boolean async) {
+        ItemClient client = itemClient(async);
+        server.respond(request -> StubResponse.json(200, ITEM_JSON).header("ETag", "\"1\""));
+        client.findById(1L, null).join();
+        String error = "{\"errorCode\":404,\"description\":\"Предмет с id 1 не найден.\"}";
+        server.respond(request -> StubResponse.json(404, error));
+
+        ResponseEntity<Object> response = client.findById(1L, null).join();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(error, body(response));
+        assertEquals("application/json", response.getHeaders().getFirst("Content-Type"));
+        assertEquals(0, responseCache.size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void get_shouldForwardOnlyAllowListedHeaders(boolean async) {
+        ItemClient client = itemClient(async);
+        server.respond(request -> StubResponse.json(200, "[]")
+                .header("ETag", "\"3\"")
+                .header("Last-Modified", "Thu, 01 Jan 2026 00:00:00 GMT")
+                .header("Cache-Control", "no-cache")
+                .header("Set-Cookie", "session=1")
+                .header("X-Internal-Trace", "abc"));
+
+        ResponseEntity<Object> response = client.searchItems("дрель").join();
+
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertEquals("Thu, 01 Jan 2026 00:00:00 GMT", response.getHeaders().getFirst("Last-Modified"));
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+        assertEquals("application/json", response.getHeaders().getFirst("Content-Type"));
+        assertNull(response.getHeaders().getFirst("Set-Cookie"));
+        assertNull(response.getHeaders().getFirst("X-Internal-Trace"));
+        assertNull(response.getHeaders().getFirst("Content-Length"));
+        assertEquals("[]", body(response));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void getAllOwnerItems_shouldForwardClientValidatorAndNotModified(boolean async) {
+        ItemClient client = itemClient(async);
+        server.respond(request -> StubResponse.status(304).header("ETag", "\"7\""));
+
+        ResponseEntity<Object> response = client.getAllOwnerItems(5L, "\"7\"").join();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"7\"", server.lastRequest().header("If-None-Match"));
+        assertEquals("5", server.lastRequest().header("X-Sharer-User-Id"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void post_shouldSendJsonBodyAndPassThroughConflict(boolean async) {
+        ItemClient client = itemClient(async);
+        String error = "{\"errorCode\":409}";
+        server.respond(request -> StubResponse.json(409, error));
+
+        CreateCommentDto comment = new CreateCommentDto();
+        comment.setText("Отлично");
+
+        ResponseEntity<Object> response = client.addComment(3L, 1L, comment).join();
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(error, body(response));
+        assertEquals("POST", server.lastRequest().method());
+        assertEquals("/items/1/comment", server.lastRequest().uri().getPath());
+        assertEquals("3", server.lastRequest().header("X-Sharer-User-Id"));
+        assertTrue(server.lastRequest().bodyAsString().contains("\"text\":\"Отлично\""));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void concurrentIdenticalGets_shouldShareOneServerCall(boolean async) throws Exception {
+        ItemClient client = itemClient(async);
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        server.respond(request -> {
+            received.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return StubResponse.json(200, "[]");
+        });
+
+        CompletableFuture<ResponseEntity<Object>> leader = CompletableFuture
+                .supplyAsync(() -> client.searchItems("дрель"))
+                .thenCompose(future -> future);
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<ResponseEntity<Object>>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(client.searchItems("дрель"));
+        }
+        release.countDown();
+
+        assertEquals("[]", body(leader.get(5, TimeUnit.SECONDS)));
+        for (CompletableFuture<ResponseEntity<Object>> follower : followers) {
+            assertEquals("[]", body(follower.get(5, TimeUnit.SECONDS)));
+        }
+        assertEquals(1, server.requests().size());
+
+        client.searchItems("дрель").get(5, TimeUnit.SECONDS);
+        assertEquals(2, server.requests().size());
+    }
+
+    private ItemClient itemClient(boolean async) {
+        ItemClient client = new ItemClient(server.url(), new RestTemplateBuilder(),
+                new HttpComponentsClientHttpRequestFactory());
+        client.setResponseCache(responseCache);
+        client.setInFlightRequests(new InFlightRequests(100, new SimpleMeterRegistry()));
+        if (async) {
+            client.setAsyncClient(asyncClient);
+        }
+        return client;
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InFlightRequestsTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void execute_shouldSharePendingCallAndForgetItOnCompletion() {
+        InFlightRequests inFlightRequests = new InFlightRequests(10, meterRegistry);
+        CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<ResponseEntity<byte[]>> leader = inFlightRequests.execute("key", () -> {
+            calls.incrementAndGet();
+            return call;
+        });
+        CompletableFuture<ResponseEntity<byte[]>> follower = inFlightRequests.execute("key", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        call.complete(ResponseEntity.ok(new byte[0]));
+        inFlightRequests.execute("key", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.ok(new byte[0]));
+        }).join();
+
+        assertSame(leader, follower);
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.get("shareit.single-flight.requests").tag("outcome", "coalesced")
+                .counter().count());
+    }
+
+    @Test
+    void execute_shouldNotKeepFailedCall() {
+        InFlightRequests inFlightRequests = new InFlightRequests(10, meterRegistry);
+
+        CompletableFuture<ResponseEntity<byte[]>> failed = inFlightRequests.execute("key",
+                () -> CompletableFuture.failedFuture(new IllegalStateException("down")));
+        CompletableFuture<ResponseEntity<byte[]>> retried = inFlightRequests.execute("key",
+                () -> CompletableFuture.completedFuture(ResponseEntity.ok(new byte[0])));
+
+        assertThrows(CompletionException.class, failed::join);
+        assertEquals(200, retried.join().getStatusCode().value());
+    }
+
+    @Test
+    void execute_shouldBypassWhenKeyLimitReached() {
+        InFlightRequests inFlightRequests = new InFlightRequests(1, meterRegistry);
+        inFlightRequests.execute("first", CompletableFuture::new);
+
+        CompletableFuture<ResponseEntity<byte[]>> pending = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> bypassed = inFlightRequests.execute("second", () -> pending);
+
+        assertSame(pending, bypassed);
+        assertEquals(1.0, meterRegistry.get("shareit.single-flight.requests").tag("outcome", "bypassed")
+                .counter().count());
+    }
+}
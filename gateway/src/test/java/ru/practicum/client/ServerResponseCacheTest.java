@@ -0,0 +1,26 @@
+package ru.practicum.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ServerResponseCacheTest {
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedEntry() {
+        ServerResponseCache cache = new ServerResponseCache(2);
+        cache.put("/items/1", ResponseEntity.ok(new byte[0]));
+        cache.put("/items/2", ResponseEntity.ok(new byte[0]));
+        cache.get("/items/1");
+
+        cache.put("/items/3", ResponseEntity.ok(new byte[0]));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("/items/1"));
+        assertNull(cache.get("/items/2"));
+        assertNotNull(cache.get("/items/3"));
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.client;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class StubServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<RecordedRequest> requests = new CopyOnWriteArrayList<>();
+    private volatile Responder responder = request -> StubResponse.status(200);
+
+    public StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void respond(Responder responder) {
+        this.responder = responder;
+    }
+
+    public List<RecordedRequest> requests() {
+        return requests;
+    }
+
+    public RecordedRequest lastRequest() {
+        return requests.get(requests.size() - 1);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            RecordedRequest request = new RecordedRequest(exchange.getRequestMethod(), exchange.getRequestURI(),
+                    exchange.getRequestHeaders(), exchange.getRequestBody().readAllBytes());
+            requests.add(request);
+            StubResponse response;
+            try {
+                response = responder.respond(request);
+            } catch (Exception e) {
+                response = StubResponse.status(599);
+            }
+            response.headers().forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+            byte[] body = response.body();
+            exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+            if (body.length > 0) {
+                exchange.getResponseBody().write(body);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Responder {
+        StubResponse respond(RecordedRequest request) throws Exception;
+    }
+
+    public record RecordedRequest(String method, URI uri, Headers headers, byte[] body) {
+
+        public String header(String name) {
+            return headers.getFirst(name);
+        }
+
+        public String bodyAsString() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    public record StubResponse(int status, Map<String, String> headers, byte[] body) {
+
+        public static StubResponse status(int status) {
+            return new StubResponse(status, new LinkedHashMap<>(), new byte[0]);
+        }
+
+        public static StubResponse json(int status, String body) {
+            return status(status).header("Content-Type", "application/json").body(body);
+        }
+
+        public StubResponse header(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+
+        public StubResponse body(String body) {
+            return new StubResponse(status, headers, body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.client.StubServer;
+import ru.practicum.client.StubServer.StubResponse;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ItemClientTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 10, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 1, 2, 10, 30, 15);
+
+    private final StubServer server = new StubServer();
+    private final ItemClient client = new ItemClient(server.url(), new RestTemplateBuilder(),
+            new HttpComponentsClientHttpRequestFactory());
+
+    ItemClientTest() throws Exception {
+        server.respond(request -> StubResponse.json(200, "{\"available\":true}"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void getAvailability_shouldSendFormattedPeriodWithoutUser() {
+        ResponseEntity<Object> response = client.getAvailability(1L, FROM, TO).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("/items/1/availability", server.lastRequest().uri().getPath());
+        assertEquals("start=2026-01-01 10:00:00&end=2026-01-02 10:30:15", server.lastRequest().uri().getQuery());
+        assertNull(server.lastRequest().header("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void getCalendar_shouldSendFormattedPeriod() {
+        client.getCalendar(2L, FROM, TO).join();
+
+        assertEquals("/items/2/calendar", server.lastRequest().uri().getPath());
+        assertEquals("from=2026-01-01 10:00:00&to=2026-01-02 10:30:15", server.lastRequest().uri().getQuery());
+        assertNull(server.lastRequest().header("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void getOwnerCalendar_shouldSendOwnerAndPeriod() {
+        client.getOwnerCalendar(3L, FROM, TO).join();
+
+        assertEquals("/items/calendar", server.lastRequest().uri().getPath());
+        assertEquals("from=2026-01-01 10:00:00&to=2026-01-02 10:30:15", server.lastRequest().uri().getQuery());
+        assertEquals("3", server.lastRequest().header("X-Sharer-User-Id"));
+    }
+}
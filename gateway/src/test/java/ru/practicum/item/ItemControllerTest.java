@@ -0,0 +1,75 @@
+package ru.practicum.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ItemController.class)
+class ItemControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @Test
+    void getAvailability_shouldRejectInvertedPeriodWithBadRequest() throws Exception {
+        mockMvc.perform(get("/items/1/availability")
+                        .param("start", "2026-01-02 10:00:00")
+                        .param("end", "2026-01-01 10:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void getCalendar_shouldRejectEmptyPeriodWithBadRequest() throws Exception {
+        mockMvc.perform(get("/items/1/calendar")
+                        .param("from", "2026-01-01 10:00:00")
+                        .param("to", "2026-01-01 10:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void getOwnerCalendar_shouldRejectInvertedPeriodWithBadRequest() throws Exception {
+        mockMvc.perform(get("/items/calendar")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "2026-01-02 10:00:00")
+                        .param("to", "2026-01-01 10:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void getAvailability_shouldForwardValidPeriod() throws Exception {
+        when(itemClient.getAvailability(any(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok().build()));
+
+        MvcResult result = mockMvc.perform(get("/items/1/availability")
+                        .param("start", "2026-01-01 10:00:00")
+                        .param("end", "2026-01-02 10:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+    }
+}
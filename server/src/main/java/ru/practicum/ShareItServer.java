@@ -2,7 +2,12 @@ package ru.practicum;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@EnableScheduling
 @SpringBootApplication
 public class ShareItServer {
 
@@ -3,14 +3,20 @@ package ru.practicum.shareit.booking;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStatusBatchDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.List;
 
+import static ru.practicum.shareit.util.Constants.NEXT_CURSOR_HEADER;
 import static ru.practicum.shareit.util.Constants.USER_ID_HEADER;
 
 
@@ -37,6 +43,14 @@ public class BookingController {
         return bookingService.updateStatusBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/bulk")
+    public List<BookingStatusResultDto> updateStatusBookings(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                             @RequestParam(name = "approved") Boolean approved,
+                                                             @RequestBody @Valid BookingStatusBatchDto batchDto) {
+        log.info("Получен HTTP-запрос на пакетное обновление бронирований от пользователя с id: {}", userId);
+        return bookingService.updateStatusBookings(userId, batchDto.getBookingIds(), approved);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@RequestHeader(USER_ID_HEADER) Long userId,
                                      @PathVariable("bookingId") Long bookingId) {
@@ -45,15 +59,31 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookingsForBooker(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                    @RequestParam(defaultValue = "ALL") BookingState state) {
+    public ResponseEntity<List<BookingDto>> getAllBookingsForBooker(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                                    @RequestParam(defaultValue = "ALL") BookingState state,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "50") Integer size,
+                                                                    WebRequest request) {
         log.info("Получен HTTP-запрос на получение всех броней у пользователя с id: {}", userId);
-        return bookingService.getBookingsByState(userId, state);
+        if (request.checkNotModified(bookingService.getBookerBookingsVersion(userId))) {
+            return null;
+        }
+        return toResponse(bookingService.getBookingsByState(userId, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingsForOwner(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                   @RequestParam(defaultValue = "ALL") BookingState state) {
-        return bookingService.getBookingsForOwner(userId, state);
+    public ResponseEntity<List<BookingDto>> getAllBookingsForOwner(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                                   @RequestParam(defaultValue = "ALL") BookingState state,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "50") Integer size) {
+        return toResponse(bookingService.getBookingsForOwner(userId, state, cursor, size));
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
@@ -1,46 +1,121 @@
 package ru.practicum.shareit.booking.dal;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingStatusCandidate;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByItemOwnerIdOrderByStartDescIdDesc(Long ownerId, ScrollPosition position,
+                                                                Limit limit);
 
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(Long ownerId, BookingStatus status,
+                                                                         ScrollPosition position, Limit limit);
 
-    @Query("SELECT b " +
-            "FROM Booking b " +
-            "WHERE b.booker.id = :bookerId AND CURRENT_TIMESTAMP BETWEEN b.start AND b.end " +
-            "ORDER BY b.start DESC")
-    List<Booking> findCurrentBookings(@Param("bookerId") Long bookerId);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByItemOwnerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDescIdDesc(
+            Long ownerId, LocalDateTime start, LocalDateTime end, ScrollPosition position, Limit limit);
 
-    List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime now);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(Long ownerId, LocalDateTime now,
+                                                                             ScrollPosition position, Limit limit);
 
-    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime now);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc(Long ownerId, LocalDateTime now,
+                                                                            ScrollPosition position, Limit limit);
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByBookerIdOrderByStartDescIdDesc(Long bookerId, ScrollPosition position, Limit limit);
 
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByBookerIdAndStatusOrderByStartDescIdDesc(Long bookerId, BookingStatus status,
+                                                                      ScrollPosition position, Limit limit);
 
-    List<Booking> findAllByBookerIdAndStatusInOrderByStartDesc(Long bookerId, List<BookingStatus> statuses);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByBookerIdAndStatusInOrderByStartDescIdDesc(Long bookerId, List<BookingStatus> statuses,
+                                                                        ScrollPosition position, Limit limit);
 
-    @Query("SELECT b " +
-            "FROM Booking b " +
-            "JOIN FETCH b.item " +
-            "WHERE b.item.owner.id = :ownerId AND CURRENT_TIMESTAMP BETWEEN b.start AND b.end " +
-            "ORDER BY b.start DESC")
-    List<Booking> findCurrentBookingsByOwner(@Param("ownerId") Long ownerId);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByBookerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDescIdDesc(
+            Long bookerId, LocalDateTime start, LocalDateTime end, ScrollPosition position, Limit limit);
 
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime now);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByBookerIdAndStartAfterOrderByStartDescIdDesc(Long bookerId, LocalDateTime now,
+                                                                          ScrollPosition position, Limit limit);
 
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime now);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Window<Booking> findAllByBookerIdAndEndBeforeOrderByStartDescIdDesc(Long bookerId, LocalDateTime now,
+                                                                         ScrollPosition position, Limit limit);
 
     List<Booking> findAllByItemId(Long itemId);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findWithItemAndBookerById(Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId AND b.status = 'WAITING' " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int updateWaitingStatus(@Param("bookingId") Long bookingId, @Param("ownerId") Long ownerId,
+                            @Param("status") BookingStatus status);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingStatusCandidate(" +
+            "b.id, i.id, i.owner.id, b.status, b.start, b.end, b.transitionId) " +
+            "FROM Booking b JOIN b.item i " +
+            "WHERE b.id IN :bookingIds")
+    List<BookingStatusCandidate> findStatusCandidates(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1, b.transitionId = :transitionId " +
+            "WHERE b.id IN :bookingIds AND b.status = 'WAITING' " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int updateWaitingStatuses(@Param("bookingIds") Collection<Long> bookingIds, @Param("ownerId") Long ownerId,
+                              @Param("status") BookingStatus status, @Param("transitionId") UUID transitionId);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :start AND b.start < :end")
+    boolean existsOverlapping(@Param("itemId") Long itemId, @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end, @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query(value = "SELECT id FROM (" +
+            "SELECT b.id, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC, b.id DESC) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.end_date < :now) last_bookings " +
+            "WHERE rn = 1 " +
+            "UNION ALL " +
+            "SELECT id FROM (" +
+            "SELECT b.id, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date, b.id) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date > :now) next_bookings " +
+            "WHERE rn = 1", nativeQuery = true)
+    List<Long> findLastAndNextBookingIds(@Param("itemIds") Collection<Long> itemIds,
+                                         @Param("now") LocalDateTime now);
+
+    @Query("SELECT b " +
+            "FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.id IN :ids")
+    List<Booking> findAllWithItemAndBookerByIdIn(@Param("ids") Collection<Long> ids);
+
+    default List<Booking> findLastAndNextBookings(Collection<Long> itemIds, LocalDateTime now) {
+        List<Long> ids = findLastAndNextBookingIds(itemIds, now);
+        return ids.isEmpty() ? List.of() : findAllWithItemAndBookerByIdIn(ids);
+    }
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record BookingStatusCandidate(Long id, Long itemId, Long ownerId, BookingStatus status,
+                                     LocalDateTime start, LocalDateTime end, UUID transitionId) {
+}
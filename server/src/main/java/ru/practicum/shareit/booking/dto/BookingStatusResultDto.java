@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingStatusOutcome;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingStatusResultDto {
+    private Long bookingId;
+    private BookingStatusOutcome outcome;
+    private BookingStatus status;
+}
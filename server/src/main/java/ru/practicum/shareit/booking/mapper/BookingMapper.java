@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.mapper;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
 import static ru.practicum.shareit.item.mapper.ItemMapper.toItemDto;
@@ -20,6 +21,20 @@ public class BookingMapper {
         );
     }
 
+    public static BookingDto copy(BookingDto bookingDto) {
+        if (bookingDto == null) {
+            return null;
+        }
+        return new BookingDto(
+                bookingDto.getId(),
+                bookingDto.getStart(),
+                bookingDto.getEnd(),
+                bookingDto.getItem() != null ? ItemMapper.copy(bookingDto.getItem()) : null,
+                UserMapper.copy(bookingDto.getBooker()),
+                bookingDto.getStatus()
+        );
+    }
+
     public static Booking mapToCreateBooking(CreateBookingDto createBookingDto) {
         Booking booking = new Booking();
         booking.setStart(createBookingDto.getStart());
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.model;
+
+public enum BookingStatusOutcome {
+    UPDATED,
+    NOT_FOUND,
+    FORBIDDEN,
+    NOT_WAITING
+}
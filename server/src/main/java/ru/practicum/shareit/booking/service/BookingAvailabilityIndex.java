@@ -0,0 +1,171 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Индекс хранит только бронирования, которые еще не закончились: для прошедших периодов он не годится.
+// Строится до запуска веб-сервера, чтобы первые запросы не видели пустой индекс.
+@Slf4j
+@Component
+public class BookingAvailabilityIndex implements SmartInitializingSingleton {
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    public BookingAvailabilityIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        Map<Long, ItemTimeline> rebuilt = new ConcurrentHashMap<>();
+        jdbcTemplate.query("SELECT id, item_id, start_date, end_date FROM bookings " +
+                        "WHERE status IN ('WAITING', 'APPROVED') AND end_date > ?",
+                rs -> {
+                    rebuilt.computeIfAbsent(rs.getLong("item_id"), id -> new ItemTimeline())
+                            .put(rs.getLong("id"), rs.getObject("start_date", LocalDateTime.class),
+                                    rs.getObject("end_date", LocalDateTime.class));
+                }, LocalDateTime.now());
+        timelines = rebuilt;
+        log.info("Индекс занятости вещей построен, вещей с бронированиями: {}", rebuilt.size());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.availability.prune-interval:PT1H}",
+            initialDelayString = "${shareit.availability.prune-interval:PT1H}")
+    public void prune() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long itemId : timelines.keySet()) {
+            timelines.computeIfPresent(itemId, (id, timeline) -> timeline.prune(now) ? null : timeline);
+        }
+        log.info("Из индекса занятости удалены прошедшие бронирования, вещей с бронированиями: {}", timelines.size());
+    }
+
+    public int size() {
+        return timelines.size();
+    }
+
+    public void onBookingSaved(Booking booking) {
+        onBookingSaved(booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                booking.getStatus());
+    }
+
+    public void onBookingSaved(long bookingId, long itemId, LocalDateTime start, LocalDateTime end,
+                               BookingStatus status) {
+        boolean blocking = status == BookingStatus.WAITING || status == BookingStatus.APPROVED;
+        TransactionCallbacks.afterCommit(() -> {
+            if (blocking) {
+                LocalDateTime now = LocalDateTime.now();
+                timelines.compute(itemId, (id, timeline) -> {
+                    ItemTimeline target = timeline != null ? timeline : new ItemTimeline();
+                    if (end.isAfter(now)) {
+                        target.put(bookingId, start, end);
+                    }
+                    return target.prune(now) ? null : target;
+                });
+            } else {
+                ItemTimeline timeline = timelines.get(itemId);
+                if (timeline != null) {
+                    timeline.remove(bookingId, start);
+                }
+            }
+        });
+    }
+
+    // Бронирования пользователя и бронирования его вещей удаляет каскад в БД, минуя onBookingSaved:
+    // читаем их до удаления, а из индекса убираем после фиксации.
+    public void onUserDeleted(Long userId) {
+        List<IndexedBooking> bookings = jdbcTemplate.query("SELECT b.id, b.item_id FROM bookings b " +
+                        "JOIN items i ON i.id = b.item_id " +
+                        "WHERE (b.booker_id = ? OR i.owner_id = ?) AND b.status IN ('WAITING', 'APPROVED')",
+                (rs, rowNum) -> new IndexedBooking(rs.getLong("id"), rs.getLong("item_id")), userId, userId);
+        TransactionCallbacks.afterCommit(() -> {
+            for (IndexedBooking booking : bookings) {
+                ItemTimeline timeline = timelines.get(booking.itemId());
+                if (timeline != null) {
+                    timeline.remove(booking.bookingId());
+                }
+            }
+        });
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null || timeline.isFree(start, end);
+    }
+
+    public LocalDateTime nextFreeStart(Long itemId, LocalDateTime from, Duration duration) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null ? from : timeline.nextFreeStart(from, duration);
+    }
+
+    // Активные бронирования одной вещи не пересекаются (это гарантирует БД), поэтому отрезки,
+    // упорядоченные по началу, упорядочены и по концу: для проверки достаточно ближайшего слева.
+    private static final class ItemTimeline {
+        private final NavigableMap<LocalDateTime, Segment> segments = new TreeMap<>();
+
+        synchronized void put(long bookingId, LocalDateTime start, LocalDateTime end) {
+            segments.put(start, new Segment(bookingId, end));
+        }
+
+        // Отрезки упорядочены и по концу, поэтому прошедшие лежат в начале карты.
+        // Возвращает true, если у вещи не осталось бронирований.
+        synchronized boolean prune(LocalDateTime now) {
+            Map.Entry<LocalDateTime, Segment> first = segments.firstEntry();
+            while (first != null && !first.getValue().end().isAfter(now)) {
+                segments.pollFirstEntry();
+                first = segments.firstEntry();
+            }
+            return segments.isEmpty();
+        }
+
+        synchronized void remove(long bookingId, LocalDateTime start) {
+            Segment segment = segments.get(start);
+            if (segment != null && segment.bookingId() == bookingId) {
+                segments.remove(start);
+            }
+        }
+
+        // Начало из БД может отличаться точностью от сохраненного в индексе, поэтому ищем по id.
+        synchronized void remove(long bookingId) {
+            segments.values().removeIf(segment -> segment.bookingId() == bookingId);
+        }
+
+        synchronized boolean isFree(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, Segment> previous = segments.lowerEntry(end);
+            return previous == null || !previous.getValue().end().isAfter(start);
+        }
+
+        synchronized LocalDateTime nextFreeStart(LocalDateTime from, Duration duration) {
+            LocalDateTime candidate = from;
+            Map.Entry<LocalDateTime, Segment> previous = segments.lowerEntry(candidate.plus(duration));
+            while (previous != null && previous.getValue().end().isAfter(candidate)) {
+                candidate = previous.getValue().end();
+                previous = segments.lowerEntry(candidate.plus(duration));
+            }
+            return candidate;
+        }
+    }
+
+    private record Segment(long bookingId, LocalDateTime end) {
+    }
+
+    private record IndexedBooking(long bookingId, long itemId) {
+    }
+}
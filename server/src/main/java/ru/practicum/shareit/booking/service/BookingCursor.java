@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.validation.ValidationException;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+
+class BookingCursor {
+    private static final String SEPARATOR = "_";
+
+    private BookingCursor() {
+    }
+
+    static String encode(Booking booking) {
+        String key = booking.getStart() + SEPARATOR + booking.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.lastIndexOf(SEPARATOR);
+            LocalDateTime start = LocalDateTime.parse(key.substring(0, separator));
+            Long id = Long.valueOf(key.substring(separator + 1));
+            return ScrollPosition.forward(Map.of("start", start, "id", id));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+    }
+}
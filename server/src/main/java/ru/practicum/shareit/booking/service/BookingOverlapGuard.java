@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface BookingOverlapGuard {
+
+    Optional<Item> findItem(Long itemId);
+
+    boolean isOverlapping(Long itemId, LocalDateTime start, LocalDateTime end);
+}
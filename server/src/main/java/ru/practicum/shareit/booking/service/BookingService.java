@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
 
@@ -12,10 +14,14 @@ public interface BookingService {
 
     BookingDto updateStatusBooking(Long userId, Long bookingId, boolean approved);
 
+    List<BookingStatusResultDto> updateStatusBookings(Long userId, List<Long> bookingIds, boolean approved);
+
     BookingDto getBookingById(Long userId, Long bookingId);
 
-    List<BookingDto> getBookingsByState(Long userId, BookingState state);
+    BookingPageDto getBookingsByState(Long userId, BookingState state, String cursor, int size);
+
+    String getBookerBookingsVersion(Long userId);
 
-    List<BookingDto> getBookingsForOwner(Long ownerId, BookingState state);
+    BookingPageDto getBookingsForOwner(Long ownerId, BookingState state, String cursor, int size);
 }
 
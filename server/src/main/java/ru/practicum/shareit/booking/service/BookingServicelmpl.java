@@ -1,70 +1,174 @@
 package ru.practicum.shareit.booking.service;
 
+import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dal.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStatusCandidate;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingStatusOutcome;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dal.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.ConstraintViolations;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.util.Constants.ITEMS_CACHE;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true)
 public class BookingServicelmpl implements BookingService {
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final String OVERLAP_CONSTRAINT = "ex_bookings_item_period";
+    private static final String OVERLAP_MESSAGE = "Вещь уже забронирована на выбранный период";
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final BookingOverlapGuard overlapGuard;
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = ITEMS_CACHE, key = "#result.item.id")
     public BookingDto create(Long userId, CreateBookingDto createBookingDto) {
-        User booker = validateUserExist(userId);
-        Item item = validateItemExist(createBookingDto.getItemId());
+        User booker = userService.validateUserExist(userId);
+        Item item = overlapGuard.findItem(createBookingDto.getItemId())
+                .orElseThrow(() -> new NotFoundException(
+                        String.format("Предмет с id %d не найден.", createBookingDto.getItemId())));
         if (item.getOwner().getId().equals(userId)) {
             throw new NotFoundException("Нельзя забронировать свою собственную вещь");
         }
         if (!item.getAvailable()) {
             throw new IllegalStateException("Данная вещь не доступна!");
         }
+        if (overlapGuard.isOverlapping(item.getId(), createBookingDto.getStart(), createBookingDto.getEnd())) {
+            throw new ConflictException(OVERLAP_MESSAGE);
+        }
         Booking booking = BookingMapper.mapToCreateBooking(createBookingDto);
         booking.setBooker(booker);
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        booking = saveBooking(booking);
+        availabilityIndex.onBookingSaved(booking);
+        userService.onBookerBookingsChanged(userId, booking.getStart());
+        return BookingMapper.toBookingDto(booking);
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = ITEMS_CACHE, key = "#result.item.id")
     public BookingDto updateStatusBooking(Long userId, Long bookingId, boolean approved) {
-        Booking booking = validateBookingExist(bookingId);
-        if (booking.getStatus() != BookingStatus.WAITING) {
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        // UPDATE не возвращает строку (в H2 нет RETURNING), а в ответе нужны вещь и арендатор,
+        // поэтому бронирование перечитывается одним запросом с графом: после успеха для ответа,
+        // после отказа для выбора ошибки.
+        int updated = bookingRepository.updateWaitingStatus(bookingId, userId, status);
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new NotFoundException(String.format("Бронирование с id %d не найдено.", bookingId)));
+        if (updated == 0) {
+            if (booking.getStatus() == BookingStatus.WAITING && !booking.getItem().getOwner().getId().equals(userId)) {
+                throw new ForbiddenException("Данная вещь не принадлежит этому пользователю");
+            }
             throw new IllegalStateException("Нельзя изменить статус уже подтвержденного или отклоненного бронирования");
         }
-        Item item = booking.getItem();
-        if (!item.getOwner().getId().equals(userId)) {
-            throw new ForbiddenException("Данная вещь не принадлежит этому пользователю");
+        availabilityIndex.onBookingSaved(booking);
+        userService.onBookerBookingsChanged(booking.getBooker().getId(), null);
+        if (approved) {
+            userService.onOwnerItemsChanged(userId, nextChange(booking.getStart(), booking.getEnd(), LocalDateTime.now()));
         }
+        return BookingMapper.toBookingDto(booking);
+    }
 
-        if (approved) {
-            booking.setStatus(BookingStatus.APPROVED);
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = ITEMS_CACHE, allEntries = true)
+    public List<BookingStatusResultDto> updateStatusBookings(Long userId, List<Long> bookingIds, boolean approved) {
+        if (bookingIds == null || bookingIds.isEmpty() || bookingIds.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException(
+                    String.format("Количество бронирований в запросе должно быть от 1 до %d.", MAX_BATCH_SIZE));
+        }
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        Map<Long, BookingStatusCandidate> candidates = toCandidateMap(bookingRepository.findStatusCandidates(ids));
+        List<Long> transitionIds = candidates.values().stream()
+                .filter(candidate -> candidate.ownerId().equals(userId)
+                        && candidate.status() == BookingStatus.WAITING)
+                .map(BookingStatusCandidate::id)
+                .toList();
 
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
+        // Каждый вызов помечает свои строки собственным transitionId: если часть бронирований успел изменить
+        // параллельный запрос, победители определяются по метке, а не по статусу и версии.
+        UUID transitionId = UUID.randomUUID();
+        Map<Long, BookingStatusCandidate> updatedCandidates = Map.of();
+        if (!transitionIds.isEmpty()) {
+            int updated = bookingRepository.updateWaitingStatuses(transitionIds, userId, status, transitionId);
+            if (updated < transitionIds.size()) {
+                updatedCandidates = toCandidateMap(bookingRepository.findStatusCandidates(transitionIds));
+            }
+            log.info("Владелец {} изменил статус {} из {} бронирований на {}", userId, updated, ids.size(), status);
         }
 
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        List<BookingStatusResultDto> results = new ArrayList<>(ids.size());
+        List<Long> updatedIds = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime ownerItemsChange = null;
+        for (Long id : ids) {
+            BookingStatusCandidate candidate = candidates.get(id);
+            if (candidate == null) {
+                results.add(new BookingStatusResultDto(id, BookingStatusOutcome.NOT_FOUND, null));
+            } else if (!candidate.ownerId().equals(userId)) {
+                results.add(new BookingStatusResultDto(id, BookingStatusOutcome.FORBIDDEN, null));
+            } else if (candidate.status() != BookingStatus.WAITING) {
+                results.add(new BookingStatusResultDto(id, BookingStatusOutcome.NOT_WAITING, candidate.status()));
+            } else {
+                BookingStatusCandidate current = updatedCandidates.get(id);
+                if (current != null && !transitionId.equals(current.transitionId())) {
+                    results.add(new BookingStatusResultDto(id, BookingStatusOutcome.NOT_WAITING, current.status()));
+                } else {
+                    availabilityIndex.onBookingSaved(id, candidate.itemId(), candidate.start(), candidate.end(),
+                            status);
+                    updatedIds.add(id);
+                    ownerItemsChange = earliest(ownerItemsChange, nextChange(candidate.start(), candidate.end(), now));
+                    results.add(new BookingStatusResultDto(id, BookingStatusOutcome.UPDATED, status));
+                }
+            }
+        }
+        userService.onBookingStatusesChanged(updatedIds);
+        if (approved && !updatedIds.isEmpty()) {
+            userService.onOwnerItemsChanged(userId, ownerItemsChange);
+        }
+        return results;
     }
 
     @Override
@@ -78,103 +182,148 @@ public class BookingServicelmpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getBookingsByState(Long bookerId, BookingState state) {
-        validateUserExist(bookerId);
+    public BookingPageDto getBookingsByState(Long bookerId, BookingState state, String cursor, int size) {
+        userService.validateUserExist(bookerId);
 
-        List<Booking> bookings;
+        Window<Booking> bookings;
         LocalDateTime now = LocalDateTime.now();
+        ScrollPosition position = BookingCursor.decode(cursor);
+        Limit limit = toLimit(size);
 
         switch (state) {
             case BookingState.WAITING: {
-                bookings = new ArrayList<>(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(bookerId,
-                        BookingStatus.WAITING));
+                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDescIdDesc(bookerId,
+                        BookingStatus.WAITING, position, limit);
                 break;
             }
             case BookingState.REJECTED: {
-                bookings = new ArrayList<>(bookingRepository.findAllByBookerIdAndStatusInOrderByStartDesc(bookerId,
-                        List.of(BookingStatus.REJECTED, BookingStatus.CANCELED)));
+                bookings = bookingRepository.findAllByBookerIdAndStatusInOrderByStartDescIdDesc(bookerId,
+                        List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), position, limit);
                 break;
             }
             case BookingState.CURRENT: {
-                bookings = new ArrayList<>(bookingRepository.findCurrentBookings(bookerId));
+                bookings = bookingRepository.findAllByBookerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDescIdDesc(
+                        bookerId, now, now, position, limit);
                 break;
             }
             case BookingState.FUTURE: {
-                bookings = new ArrayList<>(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(bookerId,
-                        now));
+                bookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDescIdDesc(bookerId,
+                        now, position, limit);
                 break;
             }
             case BookingState.PAST: {
-                bookings = new ArrayList<>(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(bookerId,
-                        now));
+                bookings = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDescIdDesc(bookerId,
+                        now, position, limit);
                 break;
             }
             case BookingState.ALL: {
-                bookings = new ArrayList<>(bookingRepository.findAllByBookerIdOrderByStartDesc(bookerId));
+                bookings = bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(bookerId, position, limit);
                 break;
             }
             default:
-                bookings = new ArrayList<>();
+                bookings = Window.from(List.of(), index -> position);
         }
-        return bookings.stream().map(BookingMapper::toBookingDto).toList();
+        return toBookingPage(bookings);
     }
 
     @Override
-    public List<BookingDto> getBookingsForOwner(Long ownerId, BookingState state) {
-        validateUserExist(ownerId);
+    public String getBookerBookingsVersion(Long bookerId) {
+        return userService.getBookerBookingsVersion(bookerId);
+    }
 
-        List<Item> userItemsIds = itemRepository.findAllByOwnerId(ownerId);
+    @Override
+    public BookingPageDto getBookingsForOwner(Long ownerId, BookingState state, String cursor, int size) {
+        userService.validateUserExist(ownerId);
 
-        if (userItemsIds.isEmpty()) {
+        if (!itemRepository.existsByOwnerId(ownerId)) {
             throw new NotFoundException("Этот запрос только для тех пользователей, которые имеют хотя бы 1 вещь");
         }
 
-        List<Booking> bookings;
+        Window<Booking> bookings;
         LocalDateTime now = LocalDateTime.now();
+        ScrollPosition position = BookingCursor.decode(cursor);
+        Limit limit = toLimit(size);
 
         switch (state) {
             case BookingState.WAITING: {
-                bookings = new ArrayList<>(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(ownerId,
-                        BookingStatus.WAITING));
+                bookings = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(ownerId,
+                        BookingStatus.WAITING, position, limit);
                 break;
             }
             case BookingState.REJECTED: {
-                bookings = new ArrayList<>(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(ownerId,
-                        BookingStatus.REJECTED));
+                bookings = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(ownerId,
+                        BookingStatus.REJECTED, position, limit);
                 break;
             }
             case BookingState.CURRENT: {
-                bookings = new ArrayList<>(bookingRepository.findCurrentBookingsByOwner(ownerId));
+                bookings = bookingRepository.findAllByItemOwnerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDescIdDesc(
+                        ownerId, now, now, position, limit);
                 break;
             }
             case BookingState.FUTURE: {
-                bookings = new ArrayList<>(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId,
-                        now));
+                bookings = bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(ownerId,
+                        now, position, limit);
                 break;
             }
             case BookingState.PAST: {
-                bookings = new ArrayList<>(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId,
-                        now));
+                bookings = bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc(ownerId,
+                        now, position, limit);
                 break;
             }
             case BookingState.ALL: {
-                bookings = new ArrayList<>(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(ownerId));
+                bookings = bookingRepository.findAllByItemOwnerIdOrderByStartDescIdDesc(ownerId, position, limit);
                 break;
             }
             default:
-                bookings = new ArrayList<>();
+                bookings = Window.from(List.of(), index -> position);
+        }
+        return toBookingPage(bookings);
+    }
+
+    // Ближайший момент, когда подтвержденное бронирование сменит положение относительно текущего времени.
+    private static LocalDateTime nextChange(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (start.isAfter(now)) {
+            return start;
+        }
+        return end.isAfter(now) ? end : null;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime current, LocalDateTime candidate) {
+        if (current == null) {
+            return candidate;
         }
-        return bookings.stream().map(BookingMapper::toBookingDto).toList();
+        return candidate == null || current.isBefore(candidate) ? current : candidate;
     }
 
-    private Item validateItemExist(Long itemId) {
-        return itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException(String.format("Предмет с id %d не найден.", itemId)));
+    private Limit toLimit(int size) {
+        if (size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным.");
+        }
+        return Limit.of(Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private BookingPageDto toBookingPage(Window<Booking> bookings) {
+        List<BookingDto> content = bookings.stream().map(BookingMapper::toBookingDto).toList();
+        String nextCursor = null;
+        if (bookings.hasNext() && !bookings.isEmpty()) {
+            nextCursor = BookingCursor.encode(bookings.getContent().get(bookings.size() - 1));
+        }
+        return new BookingPageDto(content, nextCursor);
     }
 
-    private User validateUserExist(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id %d не найден.", userId)));
+    private static Map<Long, BookingStatusCandidate> toCandidateMap(List<BookingStatusCandidate> candidates) {
+        return candidates.stream().collect(Collectors.toMap(BookingStatusCandidate::id, Function.identity()));
+    }
+
+    private Booking saveBooking(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolated(e, OVERLAP_CONSTRAINT)) {
+                throw new ConflictException(OVERLAP_MESSAGE);
+            }
+            throw e;
+        }
     }
 
     private Booking validateBookingExist(Long id) {
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Для PostgreSQL: пересечения отсекает ограничение ex_bookings_item_period при вставке,
+// поэтому ни блокировка вещи, ни предварительная проверка не нужны.
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.overlap-guard", havingValue = "constraint")
+public class ConstraintBookingOverlapGuard implements BookingOverlapGuard {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public Optional<Item> findItem(Long itemId) {
+        return itemRepository.findById(itemId);
+    }
+
+    @Override
+    public boolean isOverlapping(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return false;
+    }
+}
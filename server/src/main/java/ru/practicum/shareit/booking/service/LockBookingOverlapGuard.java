@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Для H2, где нет исключающего ограничения: бронирования одной вещи сериализуются блокировкой строки вещи,
+// и пересечение проверяется запросом под этой блокировкой.
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.overlap-guard", havingValue = "lock", matchIfMissing = true)
+public class LockBookingOverlapGuard implements BookingOverlapGuard {
+    private static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public Optional<Item> findItem(Long itemId) {
+        return itemRepository.findByIdForUpdate(itemId);
+    }
+
+    @Override
+    public boolean isOverlapping(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.existsOverlapping(itemId, start, end, BLOCKING_STATUSES);
+    }
+}
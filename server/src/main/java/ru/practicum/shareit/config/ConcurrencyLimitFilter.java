@@ -0,0 +1,70 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Виртуальные потоки не ограничивают число одновременных запросов, а пул соединений ограничивает.
+// Лишние запросы ждут здесь, в честной очереди семафора, а не в Hikari, где по истечении
+// connection-timeout они падают с 500 уже после того, как заняли поток и начали транзакцию.
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final Semaphore permits;
+    private final long queueTimeoutMillis;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(int maxRequests, Duration queueTimeout, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxRequests, true);
+        this.queueTimeoutMillis = queueTimeout.toMillis();
+        this.rejected = Counter.builder("shareit.concurrency.rejected").register(meterRegistry);
+        Gauge.builder("shareit.concurrency.active", permits, p -> maxRequests - p.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("shareit.concurrency.queued", permits, Semaphore::getQueueLength)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            rejected.increment();
+            log.warn("Превышен лимит одновременных запросов, запрос {} {} отклонен",
+                    request.getMethod(), request.getRequestURI());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Сервер перегружен, повторите запрос позже");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+public class MigrationConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${shareit.migration.mode:migrate}") String migrationMode) {
+        return flyway -> {
+            if ("validate".equals(migrationMode)) {
+                log.info("Проверка схемы БД без применения миграций");
+                flyway.validate();
+            } else {
+                log.info("Применено миграций схемы БД: {}", flyway.migrate().migrationsExecuted);
+            }
+        };
+    }
+}
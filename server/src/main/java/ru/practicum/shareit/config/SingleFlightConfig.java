@@ -0,0 +1,27 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.VersionedItemDto;
+import ru.practicum.shareit.util.SingleFlight;
+
+import java.util.List;
+
+@Configuration
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlight<Long, VersionedItemDto> itemByIdFlight(
+            @Value("${shareit.single-flight.max-keys:1000}") int maxKeys, MeterRegistry meterRegistry) {
+        return new SingleFlight<>("items.find-by-id", maxKeys, meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<String, List<ItemDto>> itemSearchFlight(
+            @Value("${shareit.single-flight.max-keys:1000}") int maxKeys, MeterRegistry meterRegistry) {
+        return new SingleFlight<>("items.search", maxKeys, meterRegistry);
+    }
+}
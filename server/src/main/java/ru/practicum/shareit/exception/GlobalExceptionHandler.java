@@ -1,6 +1,8 @@
 package ru.practicum.shareit.exception;
 
+import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -22,6 +24,16 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    @ExceptionHandler(ValidationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError validationExceptionHandle(ValidationException e) {
+        log.error("Некорректные параметры запроса: {}", e.getMessage());
+        return ApiError.builder()
+                .errorCode(HttpStatus.BAD_REQUEST.value())
+                .description(e.getMessage())
+                .build();
+    }
+
     @ExceptionHandler(DuplicateFieldException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     public ApiError repositoryDuplicatedDataExceptionHandle(DuplicateFieldException e) {
@@ -32,6 +44,26 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    @ExceptionHandler(ConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiError conflictExceptionHandle(ConflictException e) {
+        log.error("Конфликт данных: {}", e.getMessage());
+        return ApiError.builder()
+                .errorCode(HttpStatus.CONFLICT.value())
+                .description(e.getMessage())
+                .build();
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiError optimisticLockingExceptionHandle(OptimisticLockingFailureException e) {
+        log.error("Параллельное изменение данных: {}", e.getMessage());
+        return ApiError.builder()
+                .errorCode(HttpStatus.CONFLICT.value())
+                .description("Объект был изменен другим запросом, повторите попытку")
+                .build();
+    }
+
     @ExceptionHandler(NotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ApiError ahandler(NotFoundException e) {
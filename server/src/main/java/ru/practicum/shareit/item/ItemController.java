@@ -4,12 +4,16 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.util.Constants.USER_ID_HEADER;
@@ -38,14 +42,21 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getItem(@PathVariable Long itemId) {
+    public ItemDto getItem(@PathVariable Long itemId, WebRequest request) {
         log.info("Получен HTTP-запрос на получение вещи по id: {}", itemId);
-        return itemService.findById(itemId);
+        String version = itemService.getItemVersion(itemId);
+        if (request.checkNotModified(version)) {
+            return null;
+        }
+        return itemService.findById(itemId, version);
     }
 
     @GetMapping
-    public List<ItemDto> getUserItems(@RequestHeader(USER_ID_HEADER) Long userId) {
+    public List<ItemDto> getUserItems(@RequestHeader(USER_ID_HEADER) Long userId, WebRequest request) {
         log.info("Получен HTTP-запрос на получение всех вещей у пользователя с id: {}", userId);
+        if (request.checkNotModified(itemService.getOwnerItemsVersion(userId))) {
+            return null;
+        }
         return itemService.getAllOwnerItems(userId);
     }
 
@@ -55,6 +66,32 @@ public class ItemController {
         return itemService.searchItems(text);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long itemId,
+                                               @RequestParam LocalDateTime start,
+                                               @RequestParam LocalDateTime end) {
+        log.info("Получен HTTP-запрос на проверку занятости вещи с id: {} в период {} - {}", itemId, start, end);
+        return itemService.getAvailability(itemId, start, end);
+    }
+
+    @GetMapping("/{itemId}/calendar")
+    public ItemCalendarDto getCalendar(@PathVariable Long itemId,
+                                       @RequestParam LocalDateTime from,
+                                       @RequestParam LocalDateTime to) {
+        log.info("Получен HTTP-запрос на получение календаря занятости вещи с id: {} за период {} - {}",
+                itemId, from, to);
+        return itemService.getCalendar(itemId, from, to);
+    }
+
+    @GetMapping("/calendar")
+    public List<ItemCalendarDto> getOwnerCalendar(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                  @RequestParam LocalDateTime from,
+                                                  @RequestParam LocalDateTime to) {
+        log.info("Получен HTTP-запрос на получение календаря занятости вещей пользователя с id: {} за период {} - {}",
+                userId, from, to);
+        return itemService.getOwnerCalendar(userId, from, to);
+    }
+
     @PostMapping("{itemId}/comment")
     public CommentDto addComment(@RequestHeader(USER_ID_HEADER) Long userId,
                                  @PathVariable("itemId") Long itemId,
@@ -1,11 +1,23 @@
 package ru.practicum.shareit.item.dal;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByItemId(Long itemId);
+
+    @Query("SELECT c " +
+            "FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "JOIN FETCH c.item i " +
+            "JOIN FETCH i.owner " +
+            "WHERE i.id IN :itemIds " +
+            "ORDER BY c.created")
+    List<Comment> findAllByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
@@ -1,19 +1,85 @@
 package ru.practicum.shareit.item.dal;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemBookingPeriod;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findAllByOwnerId(Long ownerId);
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "FROM Item i LEFT JOIN i.itemRequest r " +
+            "WHERE i.owner.id = :ownerId " +
+            "ORDER BY i.id")
+    List<ItemDto> findAllDtosByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "FROM Item i JOIN i.itemRequest r " +
+            "WHERE r.id IN :requestIds " +
+            "ORDER BY i.id")
+    List<ItemDto> findAllDtosByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findByIdForUpdate(@Param("itemId") Long itemId);
+
+    boolean existsByOwnerId(Long ownerId);
 
     @Query("SELECT i FROM Item i " +
             "WHERE (upper(i.name) LIKE upper(concat('%', ?1, '%')) " +
             "   OR upper(i.description) LIKE upper(concat('%', ?1, '%'))) " +
-            "AND i.available = true")
-    List<Item> search(String text);
+            "AND i.available = true " +
+            "ORDER BY CASE WHEN upper(i.name) LIKE upper(concat('%', ?1, '%')) THEN 0 ELSE 1 END, i.id")
+    List<Item> search(String text, Limit limit);
+
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.is_available " +
+            "AND (i.name ILIKE concat('%', :text, '%') OR i.description ILIKE concat('%', :text, '%')) " +
+            "ORDER BY greatest(similarity(i.name, :text), similarity(i.description, :text)) DESC, i.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Item> searchTrigram(@Param("text") String text, @Param("limit") int limit);
 
     List<Item> findByItemRequestIdOrderByIdDesc(Long requestId);
+
+    @Query("SELECT concat(" +
+            "cast(i.version AS String), '.', " +
+            "cast((SELECT count(c) FROM Comment c WHERE c.item = i) AS String), '.', " +
+            "cast((SELECT coalesce(sum(a.version), 0) FROM Comment c JOIN c.author a WHERE c.item = i) AS String), '.', " +
+            "cast((SELECT count(b) FROM Booking b WHERE b.item = i AND b.status = 'APPROVED' " +
+            "   AND b.end < :now) AS String), '.', " +
+            "cast((SELECT count(b) FROM Booking b WHERE b.item = i AND b.status = 'APPROVED' " +
+            "   AND b.start > :now) AS String), '.', " +
+            "cast((SELECT coalesce(sum(u.version), 0) FROM Booking b JOIN b.booker u WHERE b.item = i " +
+            "   AND b.status = 'APPROVED') AS String)) " +
+            "FROM Item i " +
+            "WHERE i.id = :itemId")
+    Optional<String> findVersionById(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemBookingPeriod(i.id, b.start, b.end) " +
+            "FROM Item i LEFT JOIN Booking b ON b.item = i AND b.status IN ('WAITING', 'APPROVED') " +
+            "   AND b.start < :to AND b.end > :from " +
+            "WHERE i.id = :itemId " +
+            "ORDER BY b.start")
+    Stream<ItemBookingPeriod> streamBookingPeriodsByItemId(@Param("itemId") Long itemId,
+                                                           @Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemBookingPeriod(i.id, b.start, b.end) " +
+            "FROM Item i LEFT JOIN Booking b ON b.item = i AND b.status IN ('WAITING', 'APPROVED') " +
+            "   AND b.start < :to AND b.end > :from " +
+            "WHERE i.owner.id = :ownerId " +
+            "ORDER BY i.id, b.start")
+    Stream<ItemBookingPeriod> streamBookingPeriodsByOwnerId(@Param("ownerId") Long ownerId,
+                                                            @Param("from") LocalDateTime from,
+                                                            @Param("to") LocalDateTime to);
 }
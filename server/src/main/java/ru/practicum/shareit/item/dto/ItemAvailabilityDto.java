@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private boolean free;
+    private LocalDateTime nextFreeStart;
+}
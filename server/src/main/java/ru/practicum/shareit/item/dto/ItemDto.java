@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -20,4 +21,8 @@ public class ItemDto {
     BookingDto lastBooking;
     BookingDto nextBooking;
     List<CommentDto> comments;
+
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId) {
+        this(id, name, description, available, requestId, null, null, new ArrayList<>());
+    }
 }
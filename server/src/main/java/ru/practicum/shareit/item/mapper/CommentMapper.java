@@ -17,6 +17,11 @@ public class CommentMapper {
         );
     }
 
+    public static CommentDto copy(CommentDto commentDto) {
+        return new CommentDto(commentDto.getId(), commentDto.getText(), commentDto.getAuthorName(),
+                commentDto.getCreated());
+    }
+
     public static Comment toComment(CreateCommentDto createCommentDto) {
         Comment comment = new Comment();
         comment.setText(createCommentDto.getText());
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item.mapper;
 
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 import ru.practicum.shareit.item.model.Item;
@@ -24,6 +26,23 @@ public class ItemMapper {
         );
     }
 
+    public static ItemDto copy(ItemDto itemDto) {
+        List<CommentDto> comments = new ArrayList<>();
+        if (itemDto.getComments() != null) {
+            itemDto.getComments().forEach(comment -> comments.add(CommentMapper.copy(comment)));
+        }
+        return new ItemDto(
+                itemDto.getId(),
+                itemDto.getName(),
+                itemDto.getDescription(),
+                itemDto.getAvailable(),
+                itemDto.getRequestId(),
+                BookingMapper.copy(itemDto.getLastBooking()),
+                BookingMapper.copy(itemDto.getNextBooking()),
+                comments
+        );
+    }
+
     public static Item toItem(ItemDto itemDto, User owner) {
         Item item = new Item();
         item.setName(itemDto.getName());
@@ -3,17 +3,18 @@ package ru.practicum.shareit.item.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+
 
 @Entity
 @Table(name = "items")
 @NoArgsConstructor
-@AllArgsConstructor
 @Data
 public class Item {
     @Id
@@ -34,6 +35,20 @@ public class Item {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest itemRequest;
+    @Version
+    private long version;
+    @UpdateTimestamp
+    @Column(name = "last_modified", nullable = false)
+    private LocalDateTime lastModified;
+
+    public Item(Long id, String name, String description, Boolean available, User owner, ItemRequest itemRequest) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.owner = owner;
+        this.itemRequest = itemRequest;
+    }
 
     public Item(String name, String description, boolean available, User owner, ItemRequest itemRequest) {
         this.name = name;
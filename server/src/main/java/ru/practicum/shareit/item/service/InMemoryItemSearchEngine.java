@@ -0,0 +1,198 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int limit;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, LongPostingList> suffixIndex = new TreeMap<>();
+    private final Map<Long, IndexedItem> indexedItems = new HashMap<>();
+    private final LongPostingList allIds = new LongPostingList();
+
+    public InMemoryItemSearchEngine(JdbcTemplate jdbcTemplate,
+                                    @Value("${shareit.search.limit:100}") int limit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.limit = limit;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            suffixIndex.clear();
+            indexedItems.clear();
+            allIds.clear();
+            jdbcTemplate.query("SELECT id, name, description, request_id FROM items WHERE is_available",
+                    rs -> {
+                        add(new IndexedItem(rs.getLong("id"), rs.getString("name"), rs.getString("description"),
+                                rs.getObject("request_id", Long.class)));
+                    });
+            log.info("Поисковый индекс вещей построен, проиндексировано вещей: {}", indexedItems.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        Long itemId = item.getId();
+        IndexedItem indexedItem = Boolean.TRUE.equals(item.getAvailable())
+                ? new IndexedItem(itemId, item.getName(), item.getDescription(),
+                item.getItemRequest() != null ? item.getItemRequest().getId() : null)
+                : null;
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(itemId);
+                if (indexedItem != null) {
+                    add(indexedItem);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // Вещи владельца удаляет каскад в БД: их id читаем до удаления, а из индекса убираем после фиксации.
+    @Override
+    public void onOwnerDeleted(Long ownerId) {
+        List<Long> itemIds = jdbcTemplate.queryForList("SELECT id FROM items WHERE owner_id = ?", Long.class,
+                ownerId);
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                itemIds.forEach(this::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        String query = text.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            LongPostingList candidates = allIds;
+            for (String token : tokenize(query)) {
+                LongPostingList matches = LongPostingList.unionOf(
+                        suffixIndex.subMap(token, true, token + Character.MAX_VALUE, false).values());
+                candidates = candidates.intersect(matches);
+                if (candidates.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Item> nameMatches = new ArrayList<>();
+            List<Item> descriptionMatches = new ArrayList<>();
+            for (int i = 0; i < candidates.size() && nameMatches.size() < limit; i++) {
+                IndexedItem indexedItem = indexedItems.get(candidates.get(i));
+                if (indexedItem.lowerName().contains(query)) {
+                    nameMatches.add(indexedItem.toItem());
+                } else if (indexedItem.lowerDescription().contains(query) && descriptionMatches.size() < limit) {
+                    descriptionMatches.add(indexedItem.toItem());
+                }
+            }
+            nameMatches.addAll(descriptionMatches);
+            return nameMatches.size() > limit ? nameMatches.subList(0, limit) : nameMatches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(IndexedItem indexedItem) {
+        indexedItems.put(indexedItem.id(), indexedItem);
+        allIds.add(indexedItem.id());
+        for (String suffix : suffixes(indexedItem)) {
+            suffixIndex.computeIfAbsent(suffix, key -> new LongPostingList()).add(indexedItem.id());
+        }
+    }
+
+    private void remove(Long itemId) {
+        IndexedItem indexedItem = indexedItems.remove(itemId);
+        if (indexedItem == null) {
+            return;
+        }
+        allIds.remove(itemId);
+        for (String suffix : suffixes(indexedItem)) {
+            LongPostingList postings = suffixIndex.get(suffix);
+            if (postings != null) {
+                postings.remove(itemId);
+                if (postings.isEmpty()) {
+                    suffixIndex.remove(suffix);
+                }
+            }
+        }
+    }
+
+    private static Set<String> suffixes(IndexedItem indexedItem) {
+        Set<String> suffixes = new HashSet<>();
+        for (String token : tokenize(indexedItem.lowerName() + " " + indexedItem.lowerDescription())) {
+            for (int i = 0; i < token.length(); i++) {
+                suffixes.add(token.substring(i));
+            }
+        }
+        return suffixes;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record IndexedItem(long id, String name, String description, Long requestId,
+                               String lowerName, String lowerDescription) {
+
+        IndexedItem(long id, String name, String description, Long requestId) {
+            this(id, name, description, requestId,
+                    name.toLowerCase(Locale.ROOT), description.toLowerCase(Locale.ROOT));
+        }
+
+        Item toItem() {
+            Item item = new Item();
+            item.setId(id);
+            item.setName(name);
+            item.setDescription(description);
+            item.setAvailable(true);
+            if (requestId != null) {
+                ItemRequest itemRequest = new ItemRequest();
+                itemRequest.setId(requestId);
+                item.setItemRequest(itemRequest);
+            }
+            return item;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<Item> search(String text);
+
+    default void onItemSaved(Item item) {
+    }
+
+    default void onOwnerDeleted(Long ownerId) {
+    }
+}
@@ -2,24 +2,37 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
 
     ItemDto create(Long userId, ItemDto itemDto);
 
-    ItemDto findById(Long itemId);
+    ItemDto findById(Long itemId, String tag);
+
+    String getItemVersion(Long itemId);
 
     ItemDto update(Long userId, Long itemId, UpdateItemDto itemDto);
 
     List<ItemDto> getAllOwnerItems(Long userId);
 
+    String getOwnerItemsVersion(Long userId);
+
     List<ItemDto> searchItems(String text);
 
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    ItemCalendarDto getCalendar(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemCalendarDto> getOwnerCalendar(Long userId, LocalDateTime from, LocalDateTime to);
+
     Item validateItemExist(Long itemId);
 
     CommentDto addComment(Long userId, Long itemId, CreateCommentDto createCommentDto);
@@ -3,46 +3,79 @@ package ru.practicum.shareit.item.service;
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingAvailabilityIndex;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dal.CommentRepository;
 import ru.practicum.shareit.item.dal.ItemRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
+import ru.practicum.shareit.item.dto.CalendarRunDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBookingPeriod;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.dto.VersionedItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.Occupancy;
 import ru.practicum.shareit.request.dal.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.SingleFlight;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.item.mapper.ItemMapper.toItemUpdate;
 import static ru.practicum.shareit.item.mapper.ItemMapper.toItemDto;
+import static ru.practicum.shareit.util.Constants.ITEMS_CACHE;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final SingleFlight<Long, VersionedItemDto> itemByIdFlight;
+    private final SingleFlight<String, List<ItemDto>> itemSearchFlight;
+    private final CacheManager cacheManager;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
+    @Transactional
     public ItemDto create(Long userId, ItemDto itemDto) {
         log.info("Создание вещи");
         User user = userService.validateUserExist(userId);
@@ -54,26 +87,61 @@ public class ItemServiceImpl implements ItemService {
         Item item = ItemMapper.toItem(itemDto, user);
         item.setItemRequest(itemRequest);
         item = itemRepository.save(item);
+        itemSearchEngine.onItemSaved(item);
+        userService.onOwnerItemsChanged(userId, null);
+        if (itemRequest != null) {
+            userService.onRequesterRequestsChanged(List.of(itemRequest.getRequester().getId()));
+        }
         log.info("Предмет создан: {}", item);
-        ItemDto result = ItemMapper.toItemDto(item);
-        getComments(result);
-        return result;
+        return ItemMapper.toItemDto(item);
     }
 
+    // Ожидающие результата вызовы не должны держать соединение из пула: без внешней транзакции
+    // ее открывает только тот вызов, который действительно загружает данные.
+    // Тег записи кэша читается до ее тела: запись отдаем только под тем же тегом, иначе под новым ETag
+    // уйдет устаревшее тело.
     @Override
-    public ItemDto findById(Long itemId) {
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ItemDto findById(Long itemId, String tag) {
         log.info("Получение вещи по id : {}", itemId);
+        Cache cache = cacheManager.getCache(ITEMS_CACHE);
+        VersionedItemDto versioned = cache.get(itemId, VersionedItemDto.class);
+        if (versioned == null || !versioned.tag().equals(tag)) {
+            versioned = itemByIdFlight.execute(itemId, () -> loadVersionedItem(itemId, cache));
+        }
+        if (!versioned.tag().equals(tag)) {
+            versioned = loadVersionedItem(itemId, cache);
+        }
+        // В кэше лежит изменяемый ItemDto: наружу отдаем только копию.
+        return ItemMapper.copy(versioned.item());
+    }
+
+    private VersionedItemDto loadVersionedItem(Long itemId, Cache cache) {
+        VersionedItemDto loaded = inReadOnlyTransaction(
+                () -> new VersionedItemDto(getItemVersion(itemId), loadItem(itemId)));
+        cache.put(itemId, loaded);
+        return loaded;
+    }
+
+    private ItemDto loadItem(Long itemId) {
         Optional<Item> item = itemRepository.findById(itemId);
-        if (item.isPresent()) {
-            ItemDto itemDto = ItemMapper.toItemDto(item.get());
-            getComments(itemDto);
-            return itemDto;
-        } else {
+        if (item.isEmpty()) {
             throw new NotFoundException("Пользователь с данным id не был найден");
         }
+        ItemDto itemDto = ItemMapper.toItemDto(item.get());
+        addCommentsAndBookings(List.of(itemDto));
+        return itemDto;
+    }
+
+    @Override
+    public String getItemVersion(Long itemId) {
+        return itemRepository.findVersionById(itemId, LocalDateTime.now())
+                .orElseThrow(() -> new NotFoundException(String.format("Предмет с id %d не найден.", itemId)));
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = ITEMS_CACHE, key = "#itemId")
     public ItemDto update(Long itemId, Long userId, UpdateItemDto itemDto) {
         log.info("Происходит обновление вещи с id : {}, у пользователя по id : {}", itemId, userId);
         userService.validateUserExist(userId);
@@ -81,6 +149,10 @@ public class ItemServiceImpl implements ItemService {
         if (!item.getOwner().getId().equals(userId)) {
             throw new NotFoundException("Предмет аренды не принадлежит данному пользователю");
         }
+        Set<Long> requesterIds = new HashSet<>();
+        if (item.getItemRequest() != null) {
+            requesterIds.add(item.getItemRequest().getRequester().getId());
+        }
         toItemUpdate(item, itemDto);
         if (itemDto.hasName()) {
             item.setName(itemDto.getName());
@@ -95,31 +167,81 @@ public class ItemServiceImpl implements ItemService {
             ItemRequest itemRequest = itemRequestRepository.findById(itemDto.getRequestId())
                     .orElseThrow(() -> new NotFoundException("Запрос с ID " + itemDto.getRequestId() + " не найден"));
             item.setItemRequest(itemRequest);
+            requesterIds.add(itemRequest.getRequester().getId());
         } else {
             item.setItemRequest(null);
         }
         itemRepository.save(item);
+        itemSearchEngine.onItemSaved(item);
+        userService.onOwnerItemsChanged(userId, null);
+        userService.onItemBookingsChanged(itemId);
+        userService.onRequesterRequestsChanged(requesterIds);
         return toItemDto(item);
     }
 
     public List<ItemDto> getAllOwnerItems(Long userId) {
         log.info("Получение всех вещей у пользователя с id : {}", userId);
         userService.validateUserExist(userId);
-        List<Item> items = itemRepository.findAllByOwnerId(userId);
-        List<ItemDto> itemDtos = ItemMapper.toDto(items);
-        itemDtos.forEach(this::getComments);
+        List<ItemDto> itemDtos = itemRepository.findAllDtosByOwnerId(userId);
+        addCommentsAndBookings(itemDtos);
         return itemDtos;
     }
 
+    @Override
+    public String getOwnerItemsVersion(Long userId) {
+        return userService.getOwnerItemsVersion(userId);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ItemDto> searchItems(String text) {
         log.info("Происходит поиск вещей по запросу : {}", text);
         if (text == null || text.isEmpty() || text.isBlank()) {
             return new ArrayList<>();
         }
-        return ItemMapper.toDto(itemRepository.search(text));
+        List<ItemDto> itemDtos = itemSearchFlight.execute(text,
+                () -> inReadOnlyTransaction(() -> ItemMapper.toDto(itemSearchEngine.search(text))));
+        return itemDtos.stream().map(ItemMapper::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime start, LocalDateTime end) {
+        validatePeriod(start, end);
+        if (!end.isAfter(LocalDateTime.now())) {
+            throw new ValidationException("Занятость можно проверить только для периода, который еще не закончился.");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException(String.format("Предмет с id %d не найден.", itemId));
+        }
+        boolean free = availabilityIndex.isFree(itemId, start, end);
+        LocalDateTime nextFreeStart = free ? start
+                : availabilityIndex.nextFreeStart(itemId, start, Duration.between(start, end));
+        return new ItemAvailabilityDto(itemId, start, end, free, nextFreeStart);
+    }
+
+    @Override
+    public ItemCalendarDto getCalendar(Long itemId, LocalDateTime from, LocalDateTime to) {
+        validatePeriod(from, to);
+        try (Stream<ItemBookingPeriod> periods = itemRepository.streamBookingPeriodsByItemId(itemId, from, to)) {
+            List<ItemCalendarDto> calendars = toCalendars(periods, from, to);
+            if (calendars.isEmpty()) {
+                throw new NotFoundException(String.format("Предмет с id %d не найден.", itemId));
+            }
+            return calendars.get(0);
+        }
     }
 
     @Override
+    public List<ItemCalendarDto> getOwnerCalendar(Long userId, LocalDateTime from, LocalDateTime to) {
+        validatePeriod(from, to);
+        userService.validateUserExist(userId);
+        try (Stream<ItemBookingPeriod> periods = itemRepository.streamBookingPeriodsByOwnerId(userId, from, to)) {
+            return toCalendars(periods, from, to);
+        }
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = ITEMS_CACHE, key = "#itemId")
     public CommentDto addComment(Long userId, Long itemId, CreateCommentDto createCommentDto) {
         Item item = validateItemExist(itemId);
         User user = userService.validateUserExist(userId);
@@ -141,8 +263,9 @@ public class ItemServiceImpl implements ItemService {
         comment.setItem(item);
         comment.setAuthor(user);
         comment.setCreated(LocalDateTime.now());
-
-        return CommentMapper.toCommentDto(commentRepository.save(comment));
+        CommentDto commentDto = CommentMapper.toCommentDto(commentRepository.save(comment));
+        userService.onOwnerItemsChanged(item.getOwner().getId(), null);
+        return commentDto;
     }
 
 
@@ -151,21 +274,83 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException(String.format("Предмет с id %d не найден.", itemId)));
     }
 
-    private void getComments(ItemDto itemDto) {
-        List<Comment> comments = commentRepository.findByItemId(itemDto.getId());
-                itemDto.setComments(comments.stream().map(CommentMapper::toCommentDto).toList());
-
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(itemDto.getId());
+    private <T> T inReadOnlyTransaction(Supplier<T> action) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> action.get());
+    }
 
-        if (!bookings.isEmpty()) {
-            Booking nextBooking = bookings.get(0);
-            itemDto.setNextBooking(BookingMapper.toBookingDto(nextBooking));
+    private void validatePeriod(LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Начало периода должно быть раньше его окончания.");
+        }
+    }
 
-            if (bookings.size() > 1) {
-                itemDto.setLastBooking(BookingMapper.toBookingDto(bookings.get(1)));
+    private static List<ItemCalendarDto> toCalendars(Stream<ItemBookingPeriod> periods, LocalDateTime from,
+                                                     LocalDateTime to) {
+        List<ItemCalendarDto> calendars = new ArrayList<>();
+        ItemCalendarDto current = null;
+        LocalDateTime cursor = from;
+        for (ItemBookingPeriod period : (Iterable<ItemBookingPeriod>) periods::iterator) {
+            if (current == null || !current.getItemId().equals(period.itemId())) {
+                closeCalendar(current, cursor, to);
+                current = new ItemCalendarDto(period.itemId(), new ArrayList<>());
+                calendars.add(current);
+                cursor = from;
+            }
+            if (period.start() == null) {
+                continue;
+            }
+            LocalDateTime start = period.start().isBefore(from) ? from : period.start();
+            LocalDateTime end = period.end().isAfter(to) ? to : period.end();
+            List<CalendarRunDto> runs = current.getRuns();
+            if (start.isAfter(cursor)) {
+                runs.add(new CalendarRunDto(Occupancy.FREE, cursor, start));
+                runs.add(new CalendarRunDto(Occupancy.BUSY, start, end));
+            } else if (!runs.isEmpty() && runs.get(runs.size() - 1).getState() == Occupancy.BUSY) {
+                CalendarRunDto last = runs.get(runs.size() - 1);
+                if (end.isAfter(last.getEnd())) {
+                    last.setEnd(end);
+                }
             } else {
-                itemDto.setLastBooking(BookingMapper.toBookingDto(nextBooking));
+                runs.add(new CalendarRunDto(Occupancy.BUSY, start, end));
             }
+            if (end.isAfter(cursor)) {
+                cursor = end;
+            }
+        }
+        closeCalendar(current, cursor, to);
+        return calendars;
+    }
+
+    private static void closeCalendar(ItemCalendarDto calendar, LocalDateTime cursor, LocalDateTime to) {
+        if (calendar != null && cursor.isBefore(to)) {
+            calendar.getRuns().add(new CalendarRunDto(Occupancy.FREE, cursor, to));
+        }
+    }
+
+    private void addCommentsAndBookings(List<ItemDto> itemDtos) {
+        if (itemDtos.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = itemDtos.stream().map(ItemDto::getId).toList();
+
+        Map<Long, List<CommentDto>> commentsByItem = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingDto> lastBookings = new HashMap<>();
+        Map<Long, BookingDto> nextBookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextBookings(itemIds, now)) {
+            Map<Long, BookingDto> target = booking.getEnd().isBefore(now) ? lastBookings : nextBookings;
+            target.put(booking.getItem().getId(), BookingMapper.toBookingDto(booking));
+        }
+
+        for (ItemDto itemDto : itemDtos) {
+            itemDto.setComments(commentsByItem.getOrDefault(itemDto.getId(), new ArrayList<>()));
+            itemDto.setLastBooking(lastBookings.get(itemDto.getId()));
+            itemDto.setNextBooking(nextBookings.get(itemDto.getId()));
         }
     }
 }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "like", matchIfMissing = true)
+public class LikeItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final Limit limit;
+
+    public LikeItemSearchEngine(ItemRepository itemRepository,
+                                @Value("${shareit.search.limit:100}") int limit) {
+        this.itemRepository = itemRepository;
+        this.limit = Limit.of(limit);
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        return itemRepository.search(text, limit);
+    }
+}
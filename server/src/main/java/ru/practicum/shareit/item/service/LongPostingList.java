@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+class LongPostingList {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] values;
+    private int size;
+
+    LongPostingList() {
+        this(new long[INITIAL_CAPACITY], 0);
+    }
+
+    private LongPostingList(long[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    static LongPostingList unionOf(Collection<LongPostingList> lists) {
+        int total = 0;
+        for (LongPostingList list : lists) {
+            total += list.size;
+        }
+        long[] merged = new long[total];
+        int position = 0;
+        for (LongPostingList list : lists) {
+            System.arraycopy(list.values, 0, merged, position, list.size);
+            position += list.size;
+        }
+        Arrays.sort(merged);
+        int unique = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (i == 0 || merged[i] != merged[i - 1]) {
+                merged[unique++] = merged[i];
+            }
+        }
+        return new LongPostingList(merged, unique);
+    }
+
+    void add(long value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        values[insertAt] = value;
+        size++;
+    }
+
+    void remove(long value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    LongPostingList intersect(LongPostingList other) {
+        long[] result = new long[Math.min(size, other.size)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (values[i] < other.values[j]) {
+                i++;
+            } else if (values[i] > other.values[j]) {
+                j++;
+            } else {
+                result[count++] = values[i];
+                i++;
+                j++;
+            }
+        }
+        return new LongPostingList(result, count);
+    }
+
+    long get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "trigram")
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final int limit;
+
+    public TrigramItemSearchEngine(ItemRepository itemRepository,
+                                   @Value("${shareit.search.limit:100}") int limit) {
+        this.itemRepository = itemRepository;
+        this.limit = limit;
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        return itemRepository.searchTrigram(text, limit);
+    }
+}
@@ -3,9 +3,11 @@ package ru.practicum.shareit.request;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.util.ResourceVersion;
 
 import java.util.List;
 
@@ -25,7 +27,11 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDto> getAllRequestsById(@RequestHeader(USER_ID_HEADER) Long userId) {
+    public List<ItemRequestDto> getAllRequestsById(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                   WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getRequesterRequestsVersion(userId))) {
+            return null;
+        }
         return itemRequestService.getAllRequestsById(userId);
     }
 
@@ -38,7 +44,12 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ItemRequestDto getRequestById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                         @PathVariable("requestId") Long requestId) {
+                                         @PathVariable("requestId") Long requestId,
+                                         WebRequest request) {
+        ResourceVersion version = itemRequestService.getRequestVersion(userId, requestId);
+        if (request.checkNotModified(version.tag(), version.lastModifiedMillis())) {
+            return null;
+        }
         return itemRequestService.findById(userId, requestId);
     }
 }
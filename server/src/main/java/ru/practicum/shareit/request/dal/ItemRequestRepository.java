@@ -1,11 +1,34 @@
 package ru.practicum.shareit.request.dal;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.util.ResourceVersion;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAllByRequesterIdOrderByCreatedTimeDesc(Long userId);
+
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, u.id, u.name, u.email, " +
+            "r.createdTime) " +
+            "FROM ItemRequest r JOIN r.requester u " +
+            "ORDER BY r.createdTime DESC, r.id DESC")
+    List<ItemRequestDto> findAllDtos(Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.util.ResourceVersion(concat(" +
+            "cast(r.version AS String), '.', " +
+            "cast(u.version AS String), '.', " +
+            "cast((SELECT count(i) FROM Item i WHERE i.itemRequest = r) AS String), '.', " +
+            "cast((SELECT coalesce(sum(i.version), 0) FROM Item i WHERE i.itemRequest = r) AS String)), " +
+            "greatest(r.lastModified, u.lastModified, coalesce((SELECT max(i.lastModified) FROM Item i " +
+            "   WHERE i.itemRequest = r), r.lastModified))) " +
+            "FROM ItemRequest r JOIN r.requester u " +
+            "WHERE r.id = :requestId")
+    Optional<ResourceVersion> findVersionById(@Param("requestId") Long requestId);
 }
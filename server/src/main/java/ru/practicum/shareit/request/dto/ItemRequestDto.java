@@ -7,6 +7,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -19,4 +20,9 @@ public class ItemRequestDto {
     private UserDto requester;
     private LocalDateTime created;
     private List<ItemDto> items;
+
+    public ItemRequestDto(Long id, String description, Long requesterId, String requesterName,
+                          String requesterEmail, LocalDateTime created) {
+        this(id, description, new UserDto(requesterId, requesterName, requesterEmail), created, new ArrayList<>());
+    }
 }
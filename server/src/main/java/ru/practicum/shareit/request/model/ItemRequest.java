@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -27,6 +28,11 @@ public class ItemRequest {
     private LocalDateTime createdTime;
     @OneToMany(mappedBy = "itemRequest")
     List<Item> items;
+    @Version
+    private long version;
+    @UpdateTimestamp
+    @Column(name = "last_modified", nullable = false)
+    private LocalDateTime lastModified;
 
     public ItemRequest(String description, User requester, LocalDateTime createdTime) {
         this.description = description;
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.util.ResourceVersion;
 
 import java.util.List;
 
@@ -11,7 +12,11 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getAllRequestsById(Long userId);
 
+    String getRequesterRequestsVersion(Long userId);
+
     List<ItemRequestDto> findAll(Long userId, Integer from, Integer size);
 
     ItemRequestDto findById(Long userId, Long requestId);
+
+    ResourceVersion getRequestVersion(Long userId, Long requestId);
 }
@@ -3,42 +3,50 @@ package ru.practicum.shareit.request.service;
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dal.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
-import ru.practicum.shareit.user.dal.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.ResourceVersion;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemRequestRepository itemRequestRepository;
 
     @Override
+    @Transactional
     public ItemRequestDto createItemRequest(Long userId, CreateItemRequestDto createItemRequestDto) {
-        User requester = validateUserExist(userId);
+        User requester = userService.validateUserExist(userId);
         ItemRequest request = ItemRequestMapper.toItemRequest(createItemRequestDto);
         request.setRequester(requester);
         request.setCreatedTime(LocalDateTime.now());
         ItemRequest savedRequest = itemRequestRepository.save(request);
+        userService.onRequesterRequestsChanged(List.of(userId));
         return ItemRequestMapper.toItemRequestDto(savedRequest);
     }
 
     @Override
     public List<ItemRequestDto> getAllRequestsById(Long userId) {
-        validateUserExist(userId);
+        userService.validateUserExist(userId);
         return itemRequestRepository.findAllByRequesterIdOrderByCreatedTimeDesc(userId)
                 .stream()
                 .map(request -> {
@@ -48,32 +56,45 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .toList();
     }
 
+    @Override
+    public String getRequesterRequestsVersion(Long userId) {
+        return userService.getRequesterRequestsVersion(userId);
+    }
+
     @Override
     public List<ItemRequestDto> findAll(Long userId, Integer from, Integer size) {
-        validateUserExist(userId);
+        userService.validateUserExist(userId);
         if (from < 0 || size < 0) {
             throw new ValidationException("Аргументы не могут быть отрицательными.");
         }
-        return itemRequestRepository.findAll(PageRequest.of((from / size), size,
-                        Sort.by(Sort.Direction.DESC, "created")))
-                .stream()
-                .map(request -> {
-                    ItemRequestDto requestDto = ItemRequestMapper.toItemRequestDto(request);
-                    return requestDto;
-                })
-                .toList();
+        List<ItemRequestDto> requests = itemRequestRepository.findAllDtos(PageRequest.of((from / size), size));
+        addItems(requests);
+        return requests;
     }
 
     @Override
     public ItemRequestDto findById(Long userId, Long requestId) {
-        validateUserExist(userId);
+        userService.validateUserExist(userId);
         ItemRequestDto requestDto = ItemRequestMapper.toItemRequestDto(itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException(String.format("Запрос с ID = %d не найден!", requestId))));
         return requestDto;
     }
 
-    private User validateUserExist(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id %d не найден.", userId)));
+    @Override
+    public ResourceVersion getRequestVersion(Long userId, Long requestId) {
+        userService.validateUserExist(userId);
+        return itemRequestRepository.findVersionById(requestId)
+                .orElseThrow(() -> new NotFoundException(String.format("Запрос с ID = %d не найден!", requestId)));
+    }
+
+    private void addItems(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemRequestDto> requestsById = requests.stream()
+                .collect(Collectors.toMap(ItemRequestDto::getId, Function.identity()));
+        for (ItemDto item : itemRepository.findAllDtosByRequestIdIn(requestsById.keySet())) {
+            requestsById.get(item.getRequestId()).getItems().add(item);
+        }
     }
 }
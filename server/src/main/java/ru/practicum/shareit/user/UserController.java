@@ -5,9 +5,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.ResourceVersion;
 
 import java.util.List;
 
@@ -27,8 +29,12 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUser(@PathVariable Long userId) {
+    public UserDto getUser(@PathVariable Long userId, WebRequest request) {
         log.info("Получен HTTP-запрос на получение пользователя по id: {}", userId);
+        ResourceVersion version = userService.getUserVersion(userId);
+        if (request.checkNotModified(version.tag(), version.lastModifiedMillis())) {
+            return null;
+        }
         return userService.getUser(userId);
     }
 
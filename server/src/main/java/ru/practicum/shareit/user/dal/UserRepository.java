@@ -1,12 +1,124 @@
 package ru.practicum.shareit.user.dal;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.user.dto.UserListVersion;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.ResourceVersion;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
         Optional<User> findByEmail(String email);
+
+        boolean existsByEmail(String email);
+
+        boolean existsByEmailAndIdNot(String email, Long id);
+
+        @Query("SELECT new ru.practicum.shareit.util.ResourceVersion(cast(u.version AS String), u.lastModified) " +
+                "FROM User u " +
+                "WHERE u.id = :userId")
+        Optional<ResourceVersion> findVersionById(@Param("userId") Long userId);
+
+        @Query("SELECT new ru.practicum.shareit.user.dto.UserListVersion(u.version, u.ownerItemsVersion, " +
+                "u.ownerItemsNextChange) " +
+                "FROM User u " +
+                "WHERE u.id = :userId")
+        Optional<UserListVersion> findOwnerItemsVersion(@Param("userId") Long userId);
+
+        @Query("SELECT new ru.practicum.shareit.user.dto.UserListVersion(u.version, u.bookerBookingsVersion, " +
+                "u.bookerBookingsNextChange) " +
+                "FROM User u " +
+                "WHERE u.id = :userId")
+        Optional<UserListVersion> findBookerBookingsVersion(@Param("userId") Long userId);
+
+        @Query("SELECT new ru.practicum.shareit.user.dto.UserListVersion(u.version, u.requesterRequestsVersion) " +
+                "FROM User u " +
+                "WHERE u.id = :userId")
+        Optional<UserListVersion> findRequesterRequestsVersion(@Param("userId") Long userId);
+
+        @Query("SELECT min(CASE WHEN b.start > :now THEN b.start ELSE b.end END) " +
+                "FROM Booking b " +
+                "WHERE b.item.owner.id = :ownerId AND b.status = 'APPROVED' AND b.end > :now")
+        Optional<LocalDateTime> findOwnerItemsNextChange(@Param("ownerId") Long ownerId,
+                                                         @Param("now") LocalDateTime now);
+
+        @Query("SELECT min(CASE WHEN b.start > :now THEN b.start ELSE b.end END) " +
+                "FROM Booking b " +
+                "WHERE b.booker.id = :bookerId AND b.end > :now")
+        Optional<LocalDateTime> findBookerBookingsNextChange(@Param("bookerId") Long bookerId,
+                                                             @Param("now") LocalDateTime now);
+
+        @Modifying
+        @Query("UPDATE User u SET u.ownerItemsVersion = u.ownerItemsVersion + 1 " +
+                "WHERE u.id = :ownerId")
+        void bumpOwnerItemsVersion(@Param("ownerId") Long ownerId);
+
+        @Modifying
+        @Query("UPDATE User u SET u.ownerItemsVersion = u.ownerItemsVersion + 1, " +
+                "u.ownerItemsNextChange = least(coalesce(u.ownerItemsNextChange, :changeAt), :changeAt) " +
+                "WHERE u.id = :ownerId")
+        void bumpOwnerItemsVersion(@Param("ownerId") Long ownerId, @Param("changeAt") LocalDateTime changeAt);
+
+        @Modifying
+        @Query("UPDATE User u SET u.ownerItemsVersion = u.ownerItemsVersion + 1, u.ownerItemsNextChange = :nextChange " +
+                "WHERE u.id = :ownerId AND u.ownerItemsNextChange = :expired")
+        int advanceOwnerItemsVersion(@Param("ownerId") Long ownerId, @Param("expired") LocalDateTime expired,
+                                     @Param("nextChange") LocalDateTime nextChange);
+
+        @Modifying
+        @Query("UPDATE User u SET u.ownerItemsVersion = u.ownerItemsVersion + 1 " +
+                "WHERE u.id IN (SELECT c.item.owner.id FROM Comment c WHERE c.author.id = :userId) " +
+                "OR u.id IN (SELECT b.item.owner.id FROM Booking b WHERE b.booker.id = :userId " +
+                "   AND b.status = 'APPROVED')")
+        void bumpOwnerItemsVersionsForParticipant(@Param("userId") Long userId);
+
+        @Modifying
+        @Query("UPDATE User u SET u.bookerBookingsVersion = u.bookerBookingsVersion + 1 " +
+                "WHERE u.id = :bookerId")
+        void bumpBookerBookingsVersion(@Param("bookerId") Long bookerId);
+
+        @Modifying
+        @Query("UPDATE User u SET u.bookerBookingsVersion = u.bookerBookingsVersion + 1, " +
+                "u.bookerBookingsNextChange = least(coalesce(u.bookerBookingsNextChange, :changeAt), :changeAt) " +
+                "WHERE u.id = :bookerId")
+        void bumpBookerBookingsVersion(@Param("bookerId") Long bookerId, @Param("changeAt") LocalDateTime changeAt);
+
+        @Modifying
+        @Query("UPDATE User u SET u.bookerBookingsVersion = u.bookerBookingsVersion + 1, " +
+                "u.bookerBookingsNextChange = :nextChange " +
+                "WHERE u.id = :bookerId AND u.bookerBookingsNextChange = :expired")
+        int advanceBookerBookingsVersion(@Param("bookerId") Long bookerId, @Param("expired") LocalDateTime expired,
+                                         @Param("nextChange") LocalDateTime nextChange);
+
+        @Modifying
+        @Query("UPDATE User u SET u.bookerBookingsVersion = u.bookerBookingsVersion + 1 " +
+                "WHERE u.id IN (SELECT b.booker.id FROM Booking b WHERE b.item.id = :itemId)")
+        void bumpBookerBookingsVersionsForItem(@Param("itemId") Long itemId);
+
+        @Modifying
+        @Query("UPDATE User u SET u.bookerBookingsVersion = u.bookerBookingsVersion + 1 " +
+                "WHERE u.id IN (SELECT b.booker.id FROM Booking b WHERE b.id IN :bookingIds)")
+        void bumpBookerBookingsVersionsForBookings(@Param("bookingIds") Collection<Long> bookingIds);
+
+        @Modifying
+        @Query("UPDATE User u SET u.bookerBookingsVersion = u.bookerBookingsVersion + 1 " +
+                "WHERE u.id IN (SELECT b.booker.id FROM Booking b WHERE b.item.owner.id = :ownerId)")
+        void bumpBookerBookingsVersionsForOwner(@Param("ownerId") Long ownerId);
+
+        @Modifying
+        @Query("UPDATE User u SET u.requesterRequestsVersion = u.requesterRequestsVersion + 1 " +
+                "WHERE u.id IN :requesterIds")
+        void bumpRequesterRequestsVersions(@Param("requesterIds") Collection<Long> requesterIds);
+
+        @Modifying
+        @Query("UPDATE User u SET u.requesterRequestsVersion = u.requesterRequestsVersion + 1 " +
+                "WHERE u.id IN (SELECT i.itemRequest.requester.id FROM Item i WHERE i.owner.id = :ownerId)")
+        void bumpRequesterRequestsVersionsForOwner(@Param("ownerId") Long ownerId);
 }
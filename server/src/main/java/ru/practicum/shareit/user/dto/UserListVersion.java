@@ -0,0 +1,18 @@
+package ru.practicum.shareit.user.dto;
+
+import java.time.LocalDateTime;
+
+public record UserListVersion(long userVersion, long listVersion, LocalDateTime nextChange) {
+
+    public UserListVersion(long userVersion, long listVersion) {
+        this(userVersion, listVersion, null);
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return nextChange != null && !nextChange.isAfter(now);
+    }
+
+    public String tag() {
+        return userVersion + "." + listVersion;
+    }
+}
@@ -16,6 +16,10 @@ public class UserMapper {
         return userDto;
     }
 
+    public static UserDto copy(UserDto userDto) {
+        return userDto == null ? null : new UserDto(userDto.getId(), userDto.getName(), userDto.getEmail());
+    }
+
     public static User fromDto(UserDto userDto) {
         User user = new User();
         user.setId(userDto.getId());
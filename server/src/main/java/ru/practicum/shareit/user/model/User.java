@@ -3,15 +3,16 @@ package ru.practicum.shareit.user.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 
 @Entity
 @Table(name = "users")
 @NoArgsConstructor
-@AllArgsConstructor
 @Data
 public class User {
     @Id
@@ -25,6 +26,27 @@ public class User {
     @NotBlank
     @Size(max = 100)
     private String email;
+    @Version
+    private long version;
+    @UpdateTimestamp
+    @Column(name = "last_modified", nullable = false)
+    private LocalDateTime lastModified;
+    @Column(name = "owner_items_version", insertable = false, updatable = false)
+    private long ownerItemsVersion;
+    @Column(name = "owner_items_next_change", insertable = false, updatable = false)
+    private LocalDateTime ownerItemsNextChange;
+    @Column(name = "booker_bookings_version", insertable = false, updatable = false)
+    private long bookerBookingsVersion;
+    @Column(name = "booker_bookings_next_change", insertable = false, updatable = false)
+    private LocalDateTime bookerBookingsNextChange;
+    @Column(name = "requester_requests_version", insertable = false, updatable = false)
+    private long requesterRequestsVersion;
+
+    public User(Long id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
 
     public User(String name, String email) {
         this.name = name;
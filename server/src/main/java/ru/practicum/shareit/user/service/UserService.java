@@ -3,7 +3,10 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.ResourceVersion;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface UserService {
@@ -11,6 +14,8 @@ public interface UserService {
 
     UserDto getUser(Long userId);
 
+    ResourceVersion getUserVersion(Long userId);
+
     List<UserDto> getAllUsers();
 
     UserDto updateUser(UpdateUserDto userDto, Long userId);
@@ -18,4 +23,20 @@ public interface UserService {
     void deleteUser(Long userId);
 
     User validateUserExist(Long userId);
+
+    String getOwnerItemsVersion(Long userId);
+
+    String getBookerBookingsVersion(Long userId);
+
+    String getRequesterRequestsVersion(Long userId);
+
+    void onOwnerItemsChanged(Long ownerId, LocalDateTime changeAt);
+
+    void onBookerBookingsChanged(Long bookerId, LocalDateTime changeAt);
+
+    void onItemBookingsChanged(Long itemId);
+
+    void onBookingStatusesChanged(Collection<Long> bookingIds);
+
+    void onRequesterRequestsChanged(Collection<Long> requesterIds);
 }
@@ -2,31 +2,57 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.service.BookingAvailabilityIndex;
 import ru.practicum.shareit.exception.DuplicateFieldException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
 import ru.practicum.shareit.user.dal.UserRepository;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserListVersion;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.ConstraintViolations;
+import ru.practicum.shareit.util.ResourceVersion;
+import ru.practicum.shareit.util.TransactionCallbacks;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static ru.practicum.shareit.user.mapper.UserMapper.*;
+import static ru.practicum.shareit.util.Constants.ITEMS_CACHE;
+import static ru.practicum.shareit.util.Constants.USERS_CACHE;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true)
 public class UserServicelmpl implements UserService {
+    private static final String DUPLICATE_EMAIL_MESSAGE = "Данная электронная почта уже занята";
+    private static final String EMAIL_CONSTRAINT = "UQ_USER_EMAIL";
+
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final AtomicLong deletions = new AtomicLong();
 
     @Override
+    @Transactional
     public UserDto createUser(UserDto userDto) {
-        validateEmailExists(userDto.getEmail());
-        User user = fromDto(userDto);
-        user = userRepository.save(user);
+        if (userRepository.existsByEmail(userDto.getEmail())) {
+            throw new DuplicateFieldException(DUPLICATE_EMAIL_MESSAGE);
+        }
+        User user = saveUser(fromDto(userDto));
         log.info("Пользователь создан: {}", user);
         return UserMapper.toDto(user);
     }
@@ -42,6 +68,12 @@ public class UserServicelmpl implements UserService {
         }
     }
 
+    @Override
+    public ResourceVersion getUserVersion(Long userId) {
+        return userRepository.findVersionById(userId)
+                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id %d не найден.", userId)));
+    }
+
     @Override
     public List<UserDto> getAllUsers() {
         List<User> users = userRepository.findAll();
@@ -50,34 +82,149 @@ public class UserServicelmpl implements UserService {
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = ITEMS_CACHE, allEntries = true)
     public UserDto updateUser(UpdateUserDto userDto, Long userId) {
-        User user = validateUserExist(userId);
-        validateEmailExists(userDto.getEmail());
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id %d не найден.", userId)));
+        if (userDto.hasEmail() && userRepository.existsByEmailAndIdNot(userDto.getEmail(), userId)) {
+            throw new DuplicateFieldException(DUPLICATE_EMAIL_MESSAGE);
+        }
         updatefromDto(user, userDto);
-        userRepository.save(user);
+        saveUser(user);
+        userRepository.bumpOwnerItemsVersionsForParticipant(userId);
         log.info("Пользователь с id: {} успешно обновлен", userId);
         return toDto(user);
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = ITEMS_CACHE, allEntries = true)
     public void deleteUser(Long userId) {
         validateUserExist(userId);
+        itemSearchEngine.onOwnerDeleted(userId);
+        availabilityIndex.onUserDeleted(userId);
+        userRepository.bumpOwnerItemsVersionsForParticipant(userId);
+        userRepository.bumpBookerBookingsVersionsForOwner(userId);
+        userRepository.bumpRequesterRequestsVersionsForOwner(userId);
         userRepository.deleteById(userId);
+        Cache cache = cacheManager.getCache(USERS_CACHE);
+        cache.evict(userId);
+        TransactionCallbacks.afterCommit(() -> {
+            deletions.incrementAndGet();
+            cache.evict(userId);
+        });
         log.info("Пользователь с id: {} успешно удален", userId);
     }
 
+    // В кэше хранится только факт существования пользователя: сущность отдаем ссылкой,
+    // чтобы не делить между транзакциями отсоединенный User с устаревшей версией.
+    // Проверка и запись в кэш не атомарны: если за это время зафиксировалось удаление,
+    // счетчик удалений изменится, и запись снимается, чтобы не вернуть удаленного пользователя.
     @Override
     public User validateUserExist(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id %d не найден.", userId)));
+        Cache cache = cacheManager.getCache(USERS_CACHE);
+        if (cache.get(userId) == null) {
+            long generation = deletions.get();
+            if (!userRepository.existsById(userId)) {
+                throw new NotFoundException(String.format("Пользователь с id %d не найден.", userId));
+            }
+            cache.put(userId, userId);
+            if (deletions.get() != generation) {
+                cache.evict(userId);
+            }
+        }
+        return userRepository.getReferenceById(userId);
+    }
+
+    // Версии списков хранятся счетчиками в строке пользователя и увеличиваются в пишущих транзакциях.
+    // Списки вещей и бронирований меняются и со временем (прошлые, текущие, будущие бронирования),
+    // поэтому рядом хранится ближайший такой момент: когда он наступил, счетчик увеличивается при чтении.
+    @Override
+    @Transactional
+    public String getOwnerItemsVersion(Long userId) {
+        UserListVersion version = userRepository.findOwnerItemsVersion(userId).orElseThrow(() -> userNotFound(userId));
+        LocalDateTime now = LocalDateTime.now();
+        if (version.isExpired(now)) {
+            userRepository.advanceOwnerItemsVersion(userId, version.nextChange(),
+                    userRepository.findOwnerItemsNextChange(userId, now).orElse(null));
+            version = userRepository.findOwnerItemsVersion(userId).orElseThrow(() -> userNotFound(userId));
+        }
+        return version.tag();
+    }
+
+    @Override
+    @Transactional
+    public String getBookerBookingsVersion(Long userId) {
+        UserListVersion version = userRepository.findBookerBookingsVersion(userId).orElseThrow(() -> userNotFound(userId));
+        LocalDateTime now = LocalDateTime.now();
+        if (version.isExpired(now)) {
+            userRepository.advanceBookerBookingsVersion(userId, version.nextChange(),
+                    userRepository.findBookerBookingsNextChange(userId, now).orElse(null));
+            version = userRepository.findBookerBookingsVersion(userId).orElseThrow(() -> userNotFound(userId));
+        }
+        return version.tag();
+    }
+
+    @Override
+    public String getRequesterRequestsVersion(Long userId) {
+        return userRepository.findRequesterRequestsVersion(userId).orElseThrow(() -> userNotFound(userId)).tag();
+    }
+
+    @Override
+    @Transactional
+    public void onOwnerItemsChanged(Long ownerId, LocalDateTime changeAt) {
+        if (changeAt == null) {
+            userRepository.bumpOwnerItemsVersion(ownerId);
+        } else {
+            userRepository.bumpOwnerItemsVersion(ownerId, changeAt);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onBookerBookingsChanged(Long bookerId, LocalDateTime changeAt) {
+        if (changeAt == null) {
+            userRepository.bumpBookerBookingsVersion(bookerId);
+        } else {
+            userRepository.bumpBookerBookingsVersion(bookerId, changeAt);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onItemBookingsChanged(Long itemId) {
+        userRepository.bumpBookerBookingsVersionsForItem(itemId);
+    }
+
+    @Override
+    @Transactional
+    public void onBookingStatusesChanged(Collection<Long> bookingIds) {
+        if (!bookingIds.isEmpty()) {
+            userRepository.bumpBookerBookingsVersionsForBookings(bookingIds);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onRequesterRequestsChanged(Collection<Long> requesterIds) {
+        if (!requesterIds.isEmpty()) {
+            userRepository.bumpRequesterRequestsVersions(requesterIds);
+        }
+    }
+
+    private static NotFoundException userNotFound(Long userId) {
+        return new NotFoundException(String.format("Пользователь с id %d не найден.", userId));
     }
 
-    private void validateEmailExists(String email) {
-        List<String> emails = userRepository.findAll().stream()
-                .map(User::getEmail)
-                .toList();
-        if (emails.contains(email)) {
-            throw new DuplicateFieldException("Данная электронная почта уже занята");
+    private User saveUser(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolated(e, EMAIL_CONSTRAINT)) {
+                throw new DuplicateFieldException(DUPLICATE_EMAIL_MESSAGE);
+            }
+            throw e;
         }
     }
 }
@@ -2,6 +2,9 @@ package ru.practicum.shareit.util;
 
 public class Constants {
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String ITEMS_CACHE = "items";
+    public static final String USERS_CACHE = "users";
 
     private Constants() {
     }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+public record ResourceVersion(String tag, LocalDateTime lastModified) {
+
+    public long lastModifiedMillis() {
+        return lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -10,7 +10,7 @@ CREATE TABLE IF NOT EXISTS requests (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     description varchar(400) NOT NULL,
     requestor_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-    created_time DATE NOT NULL
+    created_time timestamp without time zone NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS items (
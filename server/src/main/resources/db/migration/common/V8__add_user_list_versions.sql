@@ -0,0 +1,11 @@
+ALTER TABLE users ADD COLUMN IF NOT EXISTS owner_items_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS owner_items_next_change TIMESTAMP WITHOUT TIME ZONE;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS booker_bookings_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS booker_bookings_next_change TIMESTAMP WITHOUT TIME ZONE;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS requester_requests_version BIGINT DEFAULT 0 NOT NULL;
+
+-- Для существующих пользователей ближайший момент смены списков по времени неизвестен:
+-- прошедшая отметка заставит первое чтение версии пересчитать его.
+UPDATE users
+SET owner_items_next_change = TIMESTAMP '1970-01-01 00:00:00',
+    booker_bookings_next_change = TIMESTAMP '1970-01-01 00:00:00';
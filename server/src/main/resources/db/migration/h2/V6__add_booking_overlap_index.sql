@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end_start ON bookings (item_id, end_date, start_date, status);
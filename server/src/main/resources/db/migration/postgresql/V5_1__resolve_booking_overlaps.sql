@@ -0,0 +1,29 @@
+-- Перед ограничением ex_bookings_item_period снимаем уже существующие пересечения бронирований.
+-- Бронирования каждой вещи обходятся в порядке: сначала подтвержденные, затем по началу и id.
+-- Бронирование, пересекающееся с уже оставленным, отклоняется. Повторный запуск ничего не меняет.
+DO $$
+DECLARE
+    b RECORD;
+BEGIN
+    CREATE TEMP TABLE kept_bookings (
+        item_id BIGINT NOT NULL,
+        period tsrange NOT NULL
+    ) ON COMMIT DROP;
+
+    FOR b IN
+        SELECT id, item_id, start_date, end_date, status
+        FROM bookings
+        WHERE status IN ('WAITING', 'APPROVED')
+        ORDER BY item_id, CASE status WHEN 'APPROVED' THEN 0 ELSE 1 END, start_date, id
+    LOOP
+        IF EXISTS (SELECT 1 FROM kept_bookings k
+                   WHERE k.item_id = b.item_id AND k.period && tsrange(b.start_date, b.end_date, '[)')) THEN
+            IF b.status = 'APPROVED' THEN
+                RAISE NOTICE 'Подтвержденное бронирование % пересекается с другим подтвержденным и отклонено', b.id;
+            END IF;
+            UPDATE bookings SET status = 'REJECTED', version = version + 1 WHERE id = b.id;
+        ELSE
+            INSERT INTO kept_bookings VALUES (b.item_id, tsrange(b.start_date, b.end_date, '[)'));
+        END IF;
+    END LOOP;
+END $$;
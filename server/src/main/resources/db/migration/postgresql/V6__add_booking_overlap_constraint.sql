@@ -0,0 +1,7 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS period tsrange
+    GENERATED ALWAYS AS (tsrange(start_date, end_date, '[)')) STORED;
+
+ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+    EXCLUDE USING gist (item_id WITH =, period WITH &&) WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,97 @@
+package ru.practicum;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Testcontainers(disabledWithoutDocker = true)
+class BookingOverlapMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+                POSTGRES.getPassword()));
+        flyway("5").clean();
+        flyway("5").migrate();
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'Owner', 'owner@pg.ru'), " +
+                "(2, 'Booker', 'booker@pg.ru')");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) " +
+                "VALUES (1, 'Drill', 'Drill', true, 1)");
+    }
+
+    @Test
+    void migrate_shouldRejectLaterOverlappingWaitingBookings() {
+        insertBooking(1, START, START.plusDays(2), "WAITING");
+        insertBooking(2, START.plusDays(1), START.plusDays(3), "WAITING");
+        insertBooking(3, START.plusDays(2), START.plusDays(4), "WAITING");
+        insertBooking(4, START.plusDays(1), START.plusDays(3), "REJECTED");
+
+        flyway(null).migrate();
+
+        assertEquals("WAITING", statusOf(1));
+        assertEquals("REJECTED", statusOf(2));
+        assertEquals("WAITING", statusOf(3));
+        assertEquals("REJECTED", statusOf(4));
+    }
+
+    @Test
+    void migrate_shouldKeepApprovedBookingOverEarlierWaitingOne() {
+        insertBooking(1, START, START.plusDays(2), "WAITING");
+        insertBooking(2, START.plusDays(1), START.plusDays(3), "APPROVED");
+        insertBooking(3, START.plusDays(1), START.plusDays(3), "APPROVED");
+
+        flyway(null).migrate();
+
+        assertEquals("REJECTED", statusOf(1));
+        assertEquals("APPROVED", statusOf(2));
+        assertEquals("REJECTED", statusOf(3));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT version FROM bookings WHERE id = 1", Long.class));
+    }
+
+    @Test
+    void migrate_shouldEnforceConstraintAfterFixUp() {
+        insertBooking(1, START, START.plusDays(2), "APPROVED");
+
+        flyway(null).migrate();
+
+        assertThrows(DataIntegrityViolationException.class, () -> insertBooking(2, START.plusDays(1), START.plusDays(3), "WAITING"));
+    }
+
+    private Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .cleanDisabled(false);
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+    private void insertBooking(long id, LocalDateTime start, LocalDateTime end, String status) {
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, 1, 2, ?)", id, start, end, status);
+    }
+
+    private String statusOf(long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?", String.class, id);
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Пул урезан до 2 соединений с connection-timeout 250 мс, чтобы перегрузка воспроизводилась на H2.
+// С -Dload.max-requests=100000 (лимит фактически выключен) тот же тест получает 500 из-за таймаутов Hikari.
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=250",
+        "shareit.concurrency.max-requests=${load.max-requests:2}",
+        "shareit.concurrency.queue-timeout=10s",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.org.springframework.web=INFO",
+        "logging.level.org.springframework.transaction.interceptor=WARN",
+        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+        "logging.level.ru.practicum.shareit=WARN"
+})
+@ActiveProfiles("test")
+class ConcurrencyLimitLoadTest {
+    private static final int CLIENTS = 100;
+    private static final int REQUESTS_PER_CLIENT = 5;
+    private static final int BOOKINGS = 100;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Load owner', 'load-owner@mail.ru')");
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Load booker', 'load-booker@mail.ru')");
+        ownerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'load-owner@mail.ru'", Long.class);
+        long bookerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'load-booker@mail.ru'",
+                Long.class);
+        jdbcTemplate.update("INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, TRUE, ?)",
+                "Load item", "Load item", ownerId);
+        long itemId = jdbcTemplate.queryForObject("SELECT id FROM items WHERE owner_id = ?", Long.class, ownerId);
+        LocalDateTime start = LocalDateTime.now().minusYears(1);
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(new Object[]{itemId, bookerId, Timestamp.valueOf(start.plusDays(i)),
+                    Timestamp.valueOf(start.plusDays(i).plusHours(1))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (item_id, booker_id, start_date, end_date, status) " +
+                "VALUES (?, ?, ?, ?, 'APPROVED')", bookings);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id IN (SELECT id FROM items WHERE owner_id = ?)", ownerId);
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", ownerId);
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'load-%'");
+    }
+
+    @Test
+    void ownerBookings_shouldNotFailOnPoolTimeoutUnderOversubscription() throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/bookings/owner?state=ALL&size=" + BOOKINGS))
+                .header("X-Sharer-User-Id", String.valueOf(ownerId))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+
+        long began = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < REQUESTS_PER_CLIENT; j++) {
+                        long sent = System.nanoTime();
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent));
+                        statuses.computeIfAbsent(status, key -> new AtomicInteger()).incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began);
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        log.info("Нагрузочный тест: статусы {}, {} запросов за {} мс, p50 {} мс, p99 {} мс, max {} мс",
+                statuses, sorted.size(), elapsedMillis, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                sorted.get(sorted.size() - 1));
+        assertEquals(CLIENTS * REQUESTS_PER_CLIENT, sorted.size());
+        assertTrue(statuses.keySet().stream().allMatch(status -> status == 200),
+                () -> "Ожидались только 200, получено " + statuses);
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        return sorted.get((int) Math.ceil(quantile * sorted.size()) - 1);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.config.MigrationConfig;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void startup_shouldApplyAllMigrations() {
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals("8", flyway.info().current().getVersion().getVersion());
+    }
+
+    @Test
+    void migrate_shouldBeNoOpOnMigratedSchema() {
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+    }
+
+    @Test
+    void validateMode_shouldNotApplyMigrations() {
+        Flyway validatingFlyway = mock(Flyway.class);
+        FlywayMigrationStrategy strategy = new MigrationConfig().flywayMigrationStrategy("validate");
+
+        strategy.migrate(validatingFlyway);
+
+        verify(validatingFlyway).validate();
+        verify(validatingFlyway, never()).migrate();
+    }
+}
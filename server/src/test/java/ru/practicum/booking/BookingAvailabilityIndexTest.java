@@ -0,0 +1,101 @@
+package ru.practicum.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingAvailabilityIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private BookingAvailabilityIndex availabilityIndex;
+
+    private final User owner = new User(1L, "Owner", "owner@example.com");
+    private final User booker = new User(2L, "Booker", "booker@example.com");
+    private final Item item = new Item(1L, "Дрель", "Мощная дрель", true, owner, null);
+    private final LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        availabilityIndex = new BookingAvailabilityIndex(jdbcTemplate);
+        availabilityIndex.onBookingSaved(booking(1L, day.plusDays(1), day.plusDays(3), BookingStatus.APPROVED));
+        availabilityIndex.onBookingSaved(booking(2L, day.plusDays(3), day.plusDays(4), BookingStatus.WAITING));
+        availabilityIndex.onBookingSaved(booking(3L, day.plusDays(6), day.plusDays(7), BookingStatus.APPROVED));
+    }
+
+    @Test
+    void isFree_shouldTreatIntervalsAsHalfOpen() {
+        assertTrue(availabilityIndex.isFree(item.getId(), day, day.plusDays(1)));
+        assertTrue(availabilityIndex.isFree(item.getId(), day.plusDays(4), day.plusDays(6)));
+        assertFalse(availabilityIndex.isFree(item.getId(), day.plusDays(2), day.plusDays(2).plusHours(1)));
+        assertFalse(availabilityIndex.isFree(item.getId(), day, day.plusDays(10)));
+    }
+
+    @Test
+    void isFree_shouldReturnTrueForItemWithoutBookings() {
+        assertTrue(availabilityIndex.isFree(42L, day, day.plusDays(1)));
+    }
+
+    @Test
+    void nextFreeStart_shouldSkipAdjacentBusySegmentsAndTooShortGaps() {
+        assertEquals(day.plusDays(4), availabilityIndex.nextFreeStart(item.getId(), day.plusDays(2), Duration.ofDays(1)));
+        assertEquals(day.plusDays(7), availabilityIndex.nextFreeStart(item.getId(), day.plusDays(2), Duration.ofDays(3)));
+    }
+
+    @Test
+    void onBookingSaved_shouldReleasePeriodWhenBookingRejected() {
+        availabilityIndex.onBookingSaved(booking(2L, day.plusDays(3), day.plusDays(4), BookingStatus.REJECTED));
+
+        assertTrue(availabilityIndex.isFree(item.getId(), day.plusDays(3), day.plusDays(6)));
+        assertFalse(availabilityIndex.isFree(item.getId(), day.plusDays(2), day.plusDays(4)));
+    }
+
+    @Test
+    void onBookingSaved_shouldNotIndexFinishedBooking() {
+        Item otherItem = new Item(2L, "Пила", "Ручная пила", true, owner, null);
+        LocalDateTime now = LocalDateTime.now();
+
+        availabilityIndex.onBookingSaved(new Booking(4L, now.minusDays(2), now.minusDays(1), otherItem, booker,
+                BookingStatus.APPROVED));
+
+        assertEquals(1, availabilityIndex.size());
+    }
+
+    @Test
+    void prune_shouldDropBookingsThatHaveEnded() throws InterruptedException {
+        Item otherItem = new Item(2L, "Пила", "Ручная пила", true, owner, null);
+        LocalDateTime end = LocalDateTime.now().plusNanos(50_000_000);
+        availabilityIndex.onBookingSaved(new Booking(4L, end.minusDays(1), end, otherItem, booker,
+                BookingStatus.APPROVED));
+        assertEquals(2, availabilityIndex.size());
+
+        while (!LocalDateTime.now().isAfter(end)) {
+            Thread.sleep(10);
+        }
+        availabilityIndex.prune();
+
+        assertEquals(1, availabilityIndex.size());
+        assertFalse(availabilityIndex.isFree(item.getId(), day.plusDays(2), day.plusDays(3)));
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return new Booking(id, start, end, item, booker, status);
+    }
+}
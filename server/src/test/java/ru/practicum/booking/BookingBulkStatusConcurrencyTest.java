@@ -0,0 +1,120 @@
+package ru.practicum.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingStatusOutcome;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingBulkStatusConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int BOOKINGS = 24;
+    private static final int BATCH_SIZE = 12;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User("Owner", "owner@bulk.ru"));
+        booker = userRepository.save(new User("Booker", "booker@bulk.ru"));
+        item = itemRepository.save(new Item("Item", "Description", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = bookingRepository.save(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(1),
+                    item, booker, BookingStatus.WAITING));
+            bookingIds.add(booking.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll(bookingRepository.findAllByItemId(item.getId()));
+        itemRepository.delete(item);
+        userRepository.delete(booker);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void updateStatusBookings_shouldReportEachConcurrentlyApprovedBookingAsUpdatedOnce() throws Exception {
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<List<BookingStatusResultDto>>> futures = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                List<Long> batch = new ArrayList<>();
+                for (int j = 0; j < BATCH_SIZE; j++) {
+                    batch.add(bookingIds.get((i * 3 + j) % BOOKINGS));
+                }
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return bookingService.updateStatusBookings(owner.getId(), batch, true);
+                }));
+            }
+            assertTrue(ready.await(10, TimeUnit.SECONDS));
+            go.countDown();
+
+            Map<Long, Integer> updates = new HashMap<>();
+            for (Future<List<BookingStatusResultDto>> future : futures) {
+                for (BookingStatusResultDto result : future.get(30, TimeUnit.SECONDS)) {
+                    if (result.getOutcome() == BookingStatusOutcome.UPDATED) {
+                        updates.merge(result.getBookingId(), 1, Integer::sum);
+                    } else {
+                        assertEquals(BookingStatusOutcome.NOT_WAITING, result.getOutcome());
+                        assertEquals(BookingStatus.APPROVED, result.getStatus());
+                    }
+                }
+            }
+            for (Long bookingId : bookingIds) {
+                assertEquals(1, updates.get(bookingId), "Бронирование " + bookingId);
+            }
+        }
+
+        bookingRepository.findAllByItemId(item.getId())
+                .forEach(booking -> assertEquals(BookingStatus.APPROVED, booking.getStatus()));
+    }
+}
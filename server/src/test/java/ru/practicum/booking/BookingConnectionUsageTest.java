@@ -0,0 +1,94 @@
+package ru.practicum.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConnectionUsageTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User("Owner", "owner@connections.ru"));
+        booker = userRepository.save(new User("Booker", "booker@connections.ru"));
+        item = itemRepository.save(new Item("Item", "Description", true, owner, null));
+        userService.validateUserExist(owner.getId());
+        userService.validateUserExist(booker.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll(bookingRepository.findAllByItemId(item.getId()));
+        itemRepository.delete(item);
+        userRepository.deleteAll(List.of(owner, booker));
+    }
+
+    @Test
+    void createAndApprove_shouldAcquireSingleConnectionEach() {
+        CreateBookingDto createBookingDto = new CreateBookingDto(item.getId(),
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+
+        long beforeCreate = connectionAcquisitions();
+        BookingDto booking = bookingService.create(booker.getId(), createBookingDto);
+        assertEquals(1, connectionAcquisitions() - beforeCreate);
+
+        long beforeApprove = connectionAcquisitions();
+        bookingService.updateStatusBooking(owner.getId(), booking.getId(), true);
+        assertEquals(1, connectionAcquisitions() - beforeApprove);
+    }
+
+    @Test
+    void listing_shouldAcquireSingleConnection() {
+        long before = connectionAcquisitions();
+
+        bookingService.getBookingsForOwner(owner.getId(), BookingState.ALL, null, 10);
+
+        assertEquals(1, connectionAcquisitions() - before);
+    }
+
+    private long connectionAcquisitions() {
+        return meterRegistry.get("hikaricp.connections.acquire").timer().count();
+    }
+}
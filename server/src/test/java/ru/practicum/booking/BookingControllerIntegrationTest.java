@@ -0,0 +1,74 @@
+package ru.practicum.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BookingControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        booker = userRepository.save(new User("Booker", "booker@controller.ru"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(booker.getId());
+    }
+
+    @Test
+    void getBookings_shouldReturnBadRequestForMalformedCursor() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value(400));
+    }
+
+    @Test
+    void getOwnerBookings_shouldReturnBadRequestForMalformedCursor() throws Exception {
+        itemRepository.save(new Item("Drill", "Powerful drill", true, booker, null));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("cursor", "bm90LWEtY3Vyc29y"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value(400));
+    }
+
+    @Test
+    void getBookings_shouldReturnBadRequestForNonPositiveSize() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value(400));
+    }
+}
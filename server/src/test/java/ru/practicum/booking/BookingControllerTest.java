@@ -5,24 +5,35 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStatusBatchDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingStatusOutcome;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.LongStream;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -96,6 +107,58 @@ class BookingControllerTest {
         verify(bookingService).updateStatusBooking(userId, bookingId, true);
     }
 
+    @Test
+    void updateStatusBookings_shouldReturnOutcomePerBooking() throws Exception {
+        when(bookingService.updateStatusBookings(userId, List.of(1L, 2L), true)).thenReturn(List.of(
+                new BookingStatusResultDto(1L, BookingStatusOutcome.UPDATED, BookingStatus.APPROVED),
+                new BookingStatusResultDto(2L, BookingStatusOutcome.FORBIDDEN, null)));
+
+        mvc.perform(patch("/bookings/bulk?approved=true")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(mapper.writeValueAsString(new BookingStatusBatchDto(List.of(1L, 2L))))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId").value(1))
+                .andExpect(jsonPath("$[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].outcome").value("FORBIDDEN"));
+    }
+
+    @Test
+    void updateStatusBookings_shouldReturnBadRequestForMissingList() throws Exception {
+        mvc.perform(patch("/bookings/bulk?approved=true")
+                        .header("X-Sharer-User-Id", userId)
+                        .content("{}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).updateStatusBookings(anyLong(), anyList(), anyBoolean());
+    }
+
+    @Test
+    void updateStatusBookings_shouldReturnBadRequestForOversizedBatch() throws Exception {
+        List<Long> bookingIds = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        mvc.perform(patch("/bookings/bulk?approved=true")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(mapper.writeValueAsString(new BookingStatusBatchDto(bookingIds)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).updateStatusBookings(anyLong(), anyList(), anyBoolean());
+    }
+
+    @Test
+    void updateStatusBookings_shouldReturnBadRequestForNullId() throws Exception {
+        mvc.perform(patch("/bookings/bulk?approved=true")
+                        .header("X-Sharer-User-Id", userId)
+                        .content("{\"bookingIds\":[1,null]}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).updateStatusBookings(anyLong(), anyList(), anyBoolean());
+    }
+
     @Test
     void getBookingById_shouldReturnBooking() throws Exception {
         when(bookingService.getBookingById(userId, bookingId)).thenReturn(bookingDto);
@@ -111,23 +174,51 @@ class BookingControllerTest {
 
     @Test
     void getAllBookingsForBooker_shouldReturnBookingsList() throws Exception {
-        when(bookingService.getBookingsByState(userId, BookingState.ALL))
-                .thenReturn(List.of(bookingDto));
+        when(bookingService.getBookingsByState(userId, BookingState.ALL, null, 50))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), null));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId)
                         .param("state", "ALL"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].id").value(bookingId))
                 .andExpect(jsonPath("$[0].status").value("WAITING"));
 
-        verify(bookingService).getBookingsByState(userId, BookingState.ALL);
+        verify(bookingService).getBookingsByState(userId, BookingState.ALL, null, 50);
+    }
+
+    @Test
+    void getAllBookingsForBooker_shouldReturnNextCursorHeader() throws Exception {
+        when(bookingService.getBookingsByState(userId, BookingState.ALL, "cursor", 1))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), "next"));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("cursor", "cursor")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$[0].id").value(bookingId));
+    }
+
+    @Test
+    void getAllBookingsForBooker_shouldReturnNotModifiedWhenVersionMatches() throws Exception {
+        when(bookingService.getBookerBookingsVersion(userId)).thenReturn("0.4.4.1.0.2.1");
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0.4.4.1.0.2.1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0.4.4.1.0.2.1\""));
+
+        verify(bookingService, never()).getBookingsByState(userId, BookingState.ALL, null, 50);
     }
 
     @Test
     void getAllBookingsForOwner_shouldReturnBookingsList() throws Exception {
-        when(bookingService.getBookingsForOwner(userId, BookingState.ALL))
-                .thenReturn(List.of(bookingDto));
+        when(bookingService.getBookingsForOwner(userId, BookingState.ALL, null, 50))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), null));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId)
@@ -136,6 +227,6 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].id").value(bookingId))
                 .andExpect(jsonPath("$[0].item.name").value("Item"));
 
-        verify(bookingService).getBookingsForOwner(userId, BookingState.ALL);
+        verify(bookingService).getBookingsForOwner(userId, BookingState.ALL, null, 50);
     }
 }
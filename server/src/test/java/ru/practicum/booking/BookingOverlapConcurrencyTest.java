@@ -0,0 +1,128 @@
+package ru.practicum.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingOverlapConcurrencyTest {
+    private static final int THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private final List<User> bookers = new ArrayList<>();
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User("Owner", "owner@overlap.ru"));
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(new User("Booker" + i, "booker" + i + "@overlap.ru")));
+        }
+        item = itemRepository.save(new Item("Item", "Description", true, owner, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll(bookingRepository.findAllByItemId(item.getId()));
+        itemRepository.delete(item);
+        userRepository.deleteAll(bookers);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void create_shouldAcceptExactlyOneOfConcurrentOverlappingBookings() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                User booker = bookers.get(i);
+                LocalDateTime bookingStart = start.plusHours(i % 4);
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return bookingService.create(booker.getId(), new CreateBookingDto(item.getId(),
+                            bookingStart, bookingStart.plusDays(1)));
+                }));
+            }
+            assertTrue(ready.await(10, TimeUnit.SECONDS));
+            go.countDown();
+
+            int accepted = 0;
+            for (Future<?> result : results) {
+                try {
+                    result.get(30, TimeUnit.SECONDS);
+                    accepted++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ConflictException.class, e.getCause());
+                }
+            }
+            assertEquals(1, accepted);
+        }
+
+        List<Booking> bookings = bookingRepository.findAllByItemId(item.getId());
+        assertEquals(1, bookings.size());
+    }
+
+    @Test
+    void create_shouldAcceptAdjacentBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        bookingService.create(bookers.get(0).getId(), new CreateBookingDto(item.getId(), start, start.plusDays(1)));
+        bookingService.create(bookers.get(1).getId(),
+                new CreateBookingDto(item.getId(), start.plusDays(1), start.plusDays(2)));
+
+        assertEquals(2, bookingRepository.findAllByItemId(item.getId()).size());
+        assertFalse(availabilityIndex.isFree(item.getId(), start.plusHours(12), start.plusHours(36)));
+        assertEquals(start.plusDays(2),
+                availabilityIndex.nextFreeStart(item.getId(), start, Duration.ofHours(1)));
+    }
+}
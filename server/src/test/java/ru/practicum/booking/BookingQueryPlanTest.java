@@ -0,0 +1,162 @@
+package ru.practicum.booking;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dal.CommentRepository;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dal.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.booking.RecordingStatementInspector")
+class BookingQueryPlanTest {
+    private static final Limit LIMIT = Limit.of(10);
+    private static final int USERS = 20;
+    private static final int ITEMS_PER_USER = 5;
+    private static final int BOOKINGS_PER_ITEM = 10;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private User user;
+    private Item item;
+    private ItemRequest request;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(userRepository.save(new User("User" + i, "user" + i + "@example.com")));
+        }
+        user = users.get(0);
+        request = itemRequestRepository.save(new ItemRequest("Нужна дрель", user, now));
+
+        List<Item> items = new ArrayList<>();
+        for (User owner : users) {
+            for (int i = 0; i < ITEMS_PER_USER; i++) {
+                items.add(itemRepository.save(new Item("Item" + i, "Description" + i, true, owner,
+                        i == 0 ? request : null)));
+            }
+        }
+        item = items.get(0);
+
+        for (Item bookedItem : items) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                User booker = users.get((int) ((bookedItem.getId() + i + 1) % USERS));
+                booking = bookingRepository.save(new Booking(null, now.plusDays(i - 5), now.plusDays(i - 4),
+                        bookedItem, booker, BookingStatus.values()[i % BookingStatus.values().length]));
+            }
+            Comment comment = new Comment();
+            comment.setText("Отличная вещь");
+            comment.setItem(bookedItem);
+            comment.setAuthor(user);
+            comment.setCreated(now);
+            commentRepository.save(comment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        RecordingStatementInspector.drain();
+    }
+
+    @Test
+    void bookerQueries_shouldUseIndexes() {
+        Long bookerId = user.getId();
+
+        assertIndexed(() -> bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(bookerId,
+                ScrollPosition.keyset(), LIMIT));
+        assertIndexed(() -> bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(bookerId,
+                ScrollPosition.forward(Map.of("start", booking.getStart(), "id", booking.getId())), LIMIT));
+        assertIndexed(() -> bookingRepository.findAllByBookerIdAndStatusOrderByStartDescIdDesc(bookerId,
+                BookingStatus.WAITING, ScrollPosition.keyset(), LIMIT));
+        assertIndexed(() -> bookingRepository.findAllByBookerIdAndStatusInOrderByStartDescIdDesc(bookerId,
+                List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), ScrollPosition.keyset(), LIMIT));
+        assertIndexed(() -> bookingRepository.findAllByBookerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDescIdDesc(
+                bookerId, now, now, ScrollPosition.keyset(), LIMIT));
+        assertIndexed(() -> bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDescIdDesc(bookerId,
+                now, ScrollPosition.keyset(), LIMIT));
+        assertIndexed(() -> bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDescIdDesc(bookerId,
+                now, ScrollPosition.keyset(), LIMIT));
+    }
+
+    @Test
+    void ownerQueries_shouldUseIndexes() {
+        Long ownerId = user.getId();
+
+        assertIndexed(() -> bookingRepository.findAllByItemOwnerIdOrderByStartDescIdDesc(ownerId,
+                ScrollPosition.keyset(), LIMIT));
+        assertIndexed(() -> bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(ownerId,
+                BookingStatus.WAITING, ScrollPosition.keyset(), LIMIT));
+        assertIndexed(() -> bookingRepository.findAllByItemOwnerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDescIdDesc(
+                ownerId, now, now, ScrollPosition.keyset(), LIMIT));
+        assertIndexed(() -> bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(ownerId,
+                now, ScrollPosition.keyset(), LIMIT));
+        assertIndexed(() -> bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc(ownerId,
+                now, ScrollPosition.keyset(), LIMIT));
+        assertIndexed(() -> itemRepository.findAllDtosByOwnerId(ownerId));
+        assertIndexed(() -> itemRepository.existsByOwnerId(ownerId));
+    }
+
+    @Test
+    void itemQueries_shouldUseIndexes() {
+        List<Long> itemIds = List.of(item.getId(), item.getId() + 1);
+
+        assertIndexed(() -> bookingRepository.findAllByItemId(item.getId()));
+        assertIndexed(() -> bookingRepository.findLastAndNextBookings(itemIds, now));
+        assertIndexed(() -> commentRepository.findByItemId(item.getId()));
+        assertIndexed(() -> commentRepository.findAllByItemIdIn(itemIds));
+        assertIndexed(() -> itemRepository.findByItemRequestIdOrderByIdDesc(request.getId()));
+        assertIndexed(() -> itemRepository.findAllDtosByRequestIdIn(List.of(request.getId())));
+        assertIndexed(() -> itemRequestRepository.findAllByRequesterIdOrderByCreatedTimeDesc(user.getId()));
+    }
+
+    private void assertIndexed(Runnable query) {
+        query.run();
+        List<String> statements = RecordingStatementInspector.drain();
+        assertFalse(statements.isEmpty());
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertFalse(plan.contains("tableScan"), () -> "Запрос выполняется полным сканированием: " + plan);
+        }
+    }
+}
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.booking.dal.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -13,13 +16,17 @@ import ru.practicum.shareit.user.dal.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 class BookingRepositoryTest {
+    private static final Limit LIMIT = Limit.of(10);
 
     @Autowired
     private BookingRepository bookingRepository;
@@ -54,7 +61,7 @@ class BookingRepositoryTest {
         item.setOwner(owner);
         item = itemRepository.save(item);
 
-        now = LocalDateTime.now();
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
 
         pastBooking = new Booking();
         pastBooking.setItem(item);
@@ -82,8 +89,9 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByItemOwnerIdOrderByStartDesc_shouldReturnAllBookingsForOwner() {
-        List<Booking> result = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(owner.getId());
+    void findAllByItemOwnerIdOrderByStartDescIdDesc_shouldReturnAllBookingsForOwner() {
+        List<Booking> result = bookingRepository.findAllByItemOwnerIdOrderByStartDescIdDesc(owner.getId(),
+                ScrollPosition.keyset(), LIMIT).getContent();
 
         assertEquals(3, result.size());
         assertEquals(futureBooking.getId(), result.get(0).getId()); // Сортировка по убыванию даты начала
@@ -93,8 +101,8 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByItemOwnerIdAndStatusOrderByStartDesc_shouldReturnFilteredBookings() {
-        List<Booking> result = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(
-                owner.getId(), BookingStatus.APPROVED);
+        List<Booking> result = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(
+                owner.getId(), BookingStatus.APPROVED, ScrollPosition.keyset(), LIMIT).getContent();
 
         assertEquals(2, result.size());
         assertTrue(result.stream().allMatch(b -> b.getStatus() == BookingStatus.APPROVED));
@@ -102,7 +110,8 @@ class BookingRepositoryTest {
 
     @Test
     void findCurrentBookings_shouldReturnCurrentBookingsForBooker() {
-        List<Booking> result = bookingRepository.findCurrentBookings(booker.getId());
+        List<Booking> result = bookingRepository.findAllByBookerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDescIdDesc(
+                booker.getId(), now, now, ScrollPosition.keyset(), LIMIT).getContent();
 
         assertEquals(1, result.size());
         assertEquals(currentBooking.getId(), result.get(0).getId());
@@ -110,8 +119,8 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByItemOwnerIdAndStartAfterOrderByStartDesc_shouldReturnFutureBookings() {
-        List<Booking> result = bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(
-                owner.getId(), now);
+        List<Booking> result = bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(
+                owner.getId(), now, ScrollPosition.keyset(), LIMIT).getContent();
 
         assertEquals(1, result.size());
         assertEquals(futureBooking.getId(), result.get(0).getId());
@@ -119,8 +128,8 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByItemOwnerIdAndEndBeforeOrderByStartDesc_shouldReturnPastBookings() {
-        List<Booking> result = bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(
-                owner.getId(), now);
+        List<Booking> result = bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc(
+                owner.getId(), now, ScrollPosition.keyset(), LIMIT).getContent();
 
         assertEquals(1, result.size());
         assertEquals(pastBooking.getId(), result.get(0).getId());
@@ -128,7 +137,8 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByBookerIdOrderByStartDesc_shouldReturnAllBookingsForBooker() {
-        List<Booking> result = bookingRepository.findAllByBookerIdOrderByStartDesc(booker.getId());
+        List<Booking> result = bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(booker.getId(),
+                ScrollPosition.keyset(), LIMIT).getContent();
 
         assertEquals(3, result.size());
         assertEquals(futureBooking.getId(), result.get(0).getId());
@@ -136,8 +146,8 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByBookerIdAndStatusOrderByStartDesc_shouldReturnFilteredBookings() {
-        List<Booking> result = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
-                booker.getId(), BookingStatus.WAITING);
+        List<Booking> result = bookingRepository.findAllByBookerIdAndStatusOrderByStartDescIdDesc(
+                booker.getId(), BookingStatus.WAITING, ScrollPosition.keyset(), LIMIT).getContent();
 
         assertEquals(1, result.size());
         assertEquals(futureBooking.getId(), result.get(0).getId());
@@ -146,24 +156,36 @@ class BookingRepositoryTest {
     @Test
     void findAllByBookerIdAndStatusInOrderByStartDesc_shouldReturnBookingsWithStatuses() {
         List<BookingStatus> statuses = List.of(BookingStatus.APPROVED, BookingStatus.WAITING);
-        List<Booking> result = bookingRepository.findAllByBookerIdAndStatusInOrderByStartDesc(
-                booker.getId(), statuses);
+        List<Booking> result = bookingRepository.findAllByBookerIdAndStatusInOrderByStartDescIdDesc(
+                booker.getId(), statuses, ScrollPosition.keyset(), LIMIT).getContent();
 
         assertEquals(3, result.size());
     }
 
     @Test
     void findCurrentBookingsByOwner_shouldReturnCurrentBookingsForOwner() {
-        List<Booking> result = bookingRepository.findCurrentBookingsByOwner(owner.getId());
+        List<Booking> result = bookingRepository.findAllByItemOwnerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDescIdDesc(
+                owner.getId(), now, now, ScrollPosition.keyset(), LIMIT).getContent();
 
         assertEquals(1, result.size());
         assertEquals(currentBooking.getId(), result.get(0).getId());
     }
 
+    @Test
+    void findCurrentBookingsByOwner_shouldIncludeBookingsStartingOrEndingNow() {
+        LocalDateTime boundary = pastBooking.getEnd();
+
+        List<Booking> result = bookingRepository.findAllByItemOwnerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDescIdDesc(
+                owner.getId(), boundary, boundary, ScrollPosition.keyset(), LIMIT).getContent();
+
+        assertEquals(1, result.size());
+        assertEquals(pastBooking.getId(), result.get(0).getId());
+    }
+
     @Test
     void findAllByBookerIdAndStartAfterOrderByStartDesc_shouldReturnFutureBookingsForBooker() {
-        List<Booking> result = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
-                booker.getId(), now);
+        List<Booking> result = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDescIdDesc(
+                booker.getId(), now, ScrollPosition.keyset(), LIMIT).getContent();
 
         assertEquals(1, result.size());
         assertEquals(futureBooking.getId(), result.get(0).getId());
@@ -171,8 +193,8 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByBookerIdAndEndBeforeOrderByStartDesc_shouldReturnPastBookingsForBooker() {
-        List<Booking> result = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(
-                booker.getId(), now);
+        List<Booking> result = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDescIdDesc(
+                booker.getId(), now, ScrollPosition.keyset(), LIMIT).getContent();
 
         assertEquals(1, result.size());
         assertEquals(pastBooking.getId(), result.get(0).getId());
@@ -184,4 +206,51 @@ class BookingRepositoryTest {
 
         assertEquals(3, result.size());
     }
+
+    @Test
+    void findLastAndNextBookings_shouldReturnLatestFinishedAndEarliestUpcomingApproved() {
+        Booking olderPastBooking = new Booking(null, now.minusDays(5), now.minusDays(4), item, booker,
+                BookingStatus.APPROVED);
+        bookingRepository.save(olderPastBooking);
+        Booking laterFutureBooking = new Booking(null, now.plusDays(5), now.plusDays(6), item, booker,
+                BookingStatus.APPROVED);
+        bookingRepository.save(laterFutureBooking);
+        Booking nextBooking = new Booking(null, now.plusDays(3), now.plusDays(4), item, booker,
+                BookingStatus.APPROVED);
+        bookingRepository.save(nextBooking);
+
+        List<Booking> result = bookingRepository.findLastAndNextBookings(List.of(item.getId()), now);
+
+        assertEquals(2, result.size());
+        assertTrue(result.stream().anyMatch(b -> b.getId().equals(pastBooking.getId())));
+        assertTrue(result.stream().anyMatch(b -> b.getId().equals(nextBooking.getId())));
+    }
+
+    @Test
+    void findLastAndNextBookings_shouldIgnoreNotApprovedBookings() {
+        List<Booking> result = bookingRepository.findLastAndNextBookings(List.of(item.getId()), now);
+
+        assertEquals(1, result.size());
+        assertEquals(pastBooking.getId(), result.get(0).getId());
+    }
+
+    @Test
+    void findAllByBookerIdOrderByStartDescIdDesc_shouldScrollByKeyset() {
+        Window<Booking> firstPage = bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(booker.getId(),
+                ScrollPosition.keyset(), Limit.of(2));
+
+        assertEquals(2, firstPage.size());
+        assertTrue(firstPage.hasNext());
+        assertEquals(futureBooking.getId(), firstPage.getContent().get(0).getId());
+        assertEquals(currentBooking.getId(), firstPage.getContent().get(1).getId());
+
+        ScrollPosition position = ScrollPosition.forward(Map.of("start", currentBooking.getStart(),
+                "id", currentBooking.getId()));
+        Window<Booking> secondPage = bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(booker.getId(),
+                position, Limit.of(2));
+
+        assertEquals(1, secondPage.size());
+        assertFalse(secondPage.hasNext());
+        assertEquals(pastBooking.getId(), secondPage.getContent().get(0).getId());
+    }
 }
@@ -0,0 +1,175 @@
+package ru.practicum.booking;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dal.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingStatusOutcome;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dal.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class BookingServiceIntegrationTest {
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User("Owner", "owner@booking.ru"));
+        booker = userRepository.save(new User("Booker", "booker@booking.ru"));
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < 5; i++) {
+            User itemOwner = i == 0 ? owner : userRepository.save(new User("Owner" + i, "owner" + i + "@booking.ru"));
+            Item item = itemRepository.save(new Item("Item" + i, "Description" + i, true, itemOwner, null));
+            bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker,
+                    BookingStatus.APPROVED));
+            bookingRepository.save(new Booking(null, now.minusHours(1), now.plusHours(1), item, booker,
+                    BookingStatus.APPROVED));
+            bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker,
+                    BookingStatus.WAITING));
+            bookingRepository.save(new Booking(null, now.plusDays(3), now.plusDays(4), item, booker,
+                    BookingStatus.REJECTED));
+        }
+        userService.validateUserExist(owner.getId());
+        userService.validateUserExist(booker.getId());
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void getBookingsByState_shouldUseSingleStatement(BookingState state) {
+        BookingPageDto result = bookingService.getBookingsByState(booker.getId(), state, null, PAGE_SIZE);
+
+        result.getBookings().forEach(booking -> booking.getItem().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void getBookingsForOwner_shouldUseOwnershipCheckAndSingleListingStatement(BookingState state) {
+        BookingPageDto result = bookingService.getBookingsForOwner(owner.getId(), state, null, PAGE_SIZE);
+
+        result.getBookings().forEach(booking -> booking.getBooker().getName());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getBookerBookingsVersion_shouldUseSingleStatementAndChangeOnStatusUpdate() {
+        String initial = bookingService.getBookerBookingsVersion(booker.getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        Long waitingId = bookingService.getBookingsForOwner(owner.getId(), BookingState.WAITING, null, PAGE_SIZE)
+                .getBookings().get(0).getId();
+        bookingService.updateStatusBooking(owner.getId(), waitingId, true);
+
+        assertNotEquals(initial, bookingService.getBookerBookingsVersion(booker.getId()));
+    }
+
+    @Test
+    void updateStatusBooking_shouldUseOneUpdateOneReloadAndTwoVersionBumps() {
+        Long waitingId = bookingService.getBookingsForOwner(owner.getId(), BookingState.WAITING, null, PAGE_SIZE)
+                .getBookings().get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        BookingDto result = bookingService.updateStatusBooking(owner.getId(), waitingId, true);
+
+        assertEquals(BookingStatus.APPROVED, result.getStatus());
+        assertEquals("Booker", result.getBooker().getName());
+        assertEquals("Item0", result.getItem().getName());
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateStatusBooking_shouldUseOneReloadToExplainFailure() {
+        Long waitingId = bookingService.getBookingsForOwner(owner.getId(), BookingState.WAITING, null, PAGE_SIZE)
+                .getBookings().get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        assertThrows(ForbiddenException.class,
+                () -> bookingService.updateStatusBooking(booker.getId(), waitingId, true));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateStatusBookings_shouldUseOneSelectOneUpdateTwoVersionBumpsAndReportOutcomePerId() {
+        List<Long> bookingIds = new ArrayList<>(bookingRepository.findAll().stream().map(Booking::getId).toList());
+        bookingIds.add(-1L);
+        entityManager.clear();
+        statistics.clear();
+
+        List<BookingStatusResultDto> results = bookingService.updateStatusBookings(owner.getId(), bookingIds, true);
+
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(bookingIds.size(), results.size());
+        Map<BookingStatusOutcome, Long> outcomes = results.stream()
+                .collect(Collectors.groupingBy(BookingStatusResultDto::getOutcome, Collectors.counting()));
+        assertEquals(1, outcomes.get(BookingStatusOutcome.UPDATED));
+        assertEquals(3, outcomes.get(BookingStatusOutcome.NOT_WAITING));
+        assertEquals(16, outcomes.get(BookingStatusOutcome.FORBIDDEN));
+        assertEquals(1, outcomes.get(BookingStatusOutcome.NOT_FOUND));
+        assertEquals(BookingStatusOutcome.NOT_FOUND, results.get(results.size() - 1).getOutcome());
+
+        Long updatedId = results.stream().filter(result -> result.getOutcome() == BookingStatusOutcome.UPDATED)
+                .findFirst().orElseThrow().getBookingId();
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(updatedId).orElseThrow().getStatus());
+    }
+}
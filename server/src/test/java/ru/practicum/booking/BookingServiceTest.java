@@ -1,30 +1,49 @@
 package ru.practicum.booking;
 
+import jakarta.validation.ValidationException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.booking.dal.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStatusCandidate;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingStatusOutcome;
+import ru.practicum.shareit.booking.service.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.service.BookingOverlapGuard;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.BookingServicelmpl;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dal.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.dal.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -37,7 +56,11 @@ class BookingServiceTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserService userService;
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+    @Mock
+    private BookingOverlapGuard overlapGuard;
 
     private BookingService bookingService;
 
@@ -70,13 +93,14 @@ class BookingServiceTest {
 
     @BeforeEach
     void setUp() {
-        bookingService = new BookingServicelmpl(bookingRepository, itemRepository, userRepository);
+        bookingService = new BookingServicelmpl(bookingRepository, itemRepository, userService, availabilityIndex,
+                overlapGuard);
     }
 
     @Test
     void create_shouldCreateNewBooking() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(overlapGuard.findItem(itemId)).thenReturn(Optional.of(item));
 
         Booking expectedBooking = new Booking();
         expectedBooking.setStart(start);
@@ -85,19 +109,19 @@ class BookingServiceTest {
         expectedBooking.setBooker(booker);
         expectedBooking.setStatus(BookingStatus.WAITING);
 
-        when(bookingRepository.save(expectedBooking)).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(expectedBooking)).thenReturn(booking);
 
         BookingDto result = bookingService.create(userId, createBookingDto);
 
         assertEquals(bookingId, result.getId());
         assertEquals(BookingStatus.WAITING, result.getStatus());
-        verify(bookingRepository).save(expectedBooking);
+        verify(bookingRepository).saveAndFlush(expectedBooking);
     }
 
     @Test
     void create_shouldThrowWhenItemNotAvailable() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(unavailableItem));
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(overlapGuard.findItem(itemId)).thenReturn(Optional.of(unavailableItem));
 
         assertThrows(IllegalStateException.class,
                 () -> bookingService.create(userId, createBookingDto));
@@ -105,7 +129,7 @@ class BookingServiceTest {
 
     @Test
     void create_shouldThrowWhenUserNotFound() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userService.validateUserExist(userId)).thenThrow(new NotFoundException("Пользователь не найден"));
 
         assertThrows(NotFoundException.class,
                 () -> bookingService.create(userId, createBookingDto));
@@ -113,8 +137,8 @@ class BookingServiceTest {
 
     @Test
     void create_shouldThrowWhenItemNotFound() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(overlapGuard.findItem(itemId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
                 () -> bookingService.create(userId, createBookingDto));
@@ -124,9 +148,8 @@ class BookingServiceTest {
     void create_shouldThrowWhenBookingOwnItem() {
         Item ownItem = new Item(itemId, "Item", "Description", true, booker, null);
 
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(booker));
-        when(itemRepository.findById(itemId))
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(overlapGuard.findItem(itemId))
                 .thenReturn(Optional.of(ownItem));
 
         NotFoundException exception = assertThrows(NotFoundException.class,
@@ -134,58 +157,86 @@ class BookingServiceTest {
 
         assertEquals("Нельзя забронировать свою собственную вещь", exception.getMessage());
 
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
-    void updateStatusBooking_shouldApproveBooking() {
-        Booking waitingBooking = new Booking();
-        waitingBooking.setId(bookingId);
-        waitingBooking.setStatus(BookingStatus.WAITING);
-        waitingBooking.setItem(item);
-        waitingBooking.setBooker(booker);
+    void create_shouldThrowConflictWhenPeriodOverlapsActiveBooking() {
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(overlapGuard.findItem(itemId)).thenReturn(Optional.of(item));
+        when(overlapGuard.isOverlapping(itemId, start, end)).thenReturn(true);
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.create(userId, createBookingDto));
+
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void create_shouldThrowConflictWhenConstraintRejectsConcurrentBooking() {
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(overlapGuard.findItem(itemId)).thenReturn(Optional.of(item));
+        when(bookingRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("ex_bookings_item_period"));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.create(userId, createBookingDto));
+    }
+
+    @Test
+    void create_shouldRethrowOtherIntegrityViolations() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("FK violation", new SQLException(), "FK_BOOKINGS_BOOKER"));
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(overlapGuard.findItem(itemId)).thenReturn(Optional.of(item));
+        when(bookingRepository.saveAndFlush(any())).thenThrow(violation);
+
+        DataIntegrityViolationException thrown = assertThrows(DataIntegrityViolationException.class,
+                () -> bookingService.create(userId, createBookingDto));
+        assertEquals(violation, thrown);
+    }
 
+    @Test
+    void updateStatusBooking_shouldApproveBooking() {
         Booking approvedBooking = new Booking();
         approvedBooking.setId(bookingId);
         approvedBooking.setStatus(BookingStatus.APPROVED);
         approvedBooking.setItem(item);
         approvedBooking.setBooker(booker);
+        approvedBooking.setStart(LocalDateTime.now().plusDays(1));
+        approvedBooking.setEnd(LocalDateTime.now().plusDays(2));
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(waitingBooking));
-        when(bookingRepository.save(approvedBooking)).thenReturn(approvedBooking);
+        when(bookingRepository.updateWaitingStatus(bookingId, ownerId, BookingStatus.APPROVED)).thenReturn(1);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(approvedBooking));
 
         BookingDto result = bookingService.updateStatusBooking(ownerId, bookingId, true);
 
         assertEquals(BookingStatus.APPROVED, result.getStatus());
-        verify(bookingRepository).save(approvedBooking);
+        verify(bookingRepository, never()).save(any());
+        verify(userService).onBookerBookingsChanged(booker.getId(), null);
+        verify(userService).onOwnerItemsChanged(ownerId, approvedBooking.getStart());
     }
 
     @Test
     void updateStatusBooking_shouldRejectBooking() {
-        Booking waitingBooking = new Booking();
-        waitingBooking.setId(bookingId);
-        waitingBooking.setStatus(BookingStatus.WAITING);
-        waitingBooking.setItem(item);
-        waitingBooking.setBooker(booker);
-
         Booking rejectedBooking = new Booking();
         rejectedBooking.setId(bookingId);
         rejectedBooking.setStatus(BookingStatus.REJECTED);
         rejectedBooking.setItem(item);
         rejectedBooking.setBooker(booker);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(waitingBooking));
-        when(bookingRepository.save(rejectedBooking)).thenReturn(rejectedBooking);
+        when(bookingRepository.updateWaitingStatus(bookingId, ownerId, BookingStatus.REJECTED)).thenReturn(1);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(rejectedBooking));
 
         BookingDto result = bookingService.updateStatusBooking(ownerId, bookingId, false);
 
         assertEquals(BookingStatus.REJECTED, result.getStatus());
-        verify(bookingRepository).save(rejectedBooking);
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
     void updateStatusBooking_shouldThrowWhenNotOwner() {
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateWaitingStatus(bookingId, userId, BookingStatus.APPROVED)).thenReturn(0);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(booking));
 
         assertThrows(ForbiddenException.class,
                 () -> bookingService.updateStatusBooking(userId, bookingId, true));
@@ -193,7 +244,8 @@ class BookingServiceTest {
 
     @Test
     void updateStatusBooking_shouldThrowWhenBookingNotFound() {
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+        when(bookingRepository.updateWaitingStatus(bookingId, ownerId, BookingStatus.APPROVED)).thenReturn(0);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
                 () -> bookingService.updateStatusBooking(ownerId, bookingId, true));
@@ -207,12 +259,89 @@ class BookingServiceTest {
         approvedBooking.setItem(item);
         approvedBooking.setBooker(booker);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(approvedBooking));
+        when(bookingRepository.updateWaitingStatus(bookingId, ownerId, BookingStatus.APPROVED)).thenReturn(0);
+        when(bookingRepository.findWithItemAndBookerById(bookingId)).thenReturn(Optional.of(approvedBooking));
 
         assertThrows(IllegalStateException.class,
                 () -> bookingService.updateStatusBooking(ownerId, bookingId, true));
 
-        verify(bookingRepository, never()).save(any());
+        verify(availabilityIndex, never()).onBookingSaved(any());
+    }
+
+    @Test
+    void updateStatusBookings_shouldUpdateOnlyOwnedWaitingBookings() {
+        BookingStatusCandidate waiting = new BookingStatusCandidate(1L, itemId, ownerId, BookingStatus.WAITING,
+                start, end, null);
+        BookingStatusCandidate foreign = new BookingStatusCandidate(2L, 5L, 3L, BookingStatus.WAITING,
+                start, end, null);
+        BookingStatusCandidate approved = new BookingStatusCandidate(3L, itemId, ownerId, BookingStatus.APPROVED,
+                start, end, UUID.randomUUID());
+        when(bookingRepository.findStatusCandidates(any())).thenReturn(List.of(waiting, foreign, approved));
+        when(bookingRepository.updateWaitingStatuses(eq(List.of(1L)), eq(ownerId), eq(BookingStatus.REJECTED), any()))
+                .thenReturn(1);
+
+        List<BookingStatusResultDto> results = bookingService.updateStatusBookings(ownerId,
+                List.of(1L, 2L, 3L, 4L, 1L), false);
+
+        assertEquals(List.of(
+                new BookingStatusResultDto(1L, BookingStatusOutcome.UPDATED, BookingStatus.REJECTED),
+                new BookingStatusResultDto(2L, BookingStatusOutcome.FORBIDDEN, null),
+                new BookingStatusResultDto(3L, BookingStatusOutcome.NOT_WAITING, BookingStatus.APPROVED),
+                new BookingStatusResultDto(4L, BookingStatusOutcome.NOT_FOUND, null)), results);
+        verify(availabilityIndex).onBookingSaved(1L, itemId, start, end, BookingStatus.REJECTED);
+    }
+
+    @Test
+    void updateStatusBookings_shouldReportBookingChangedConcurrentlyAsNotWaiting() {
+        BookingStatusCandidate waiting = new BookingStatusCandidate(1L, itemId, ownerId, BookingStatus.WAITING,
+                start, end, null);
+        BookingStatusCandidate rejectedMeanwhile = new BookingStatusCandidate(1L, itemId, ownerId,
+                BookingStatus.REJECTED, start, end, UUID.randomUUID());
+        when(bookingRepository.findStatusCandidates(any()))
+                .thenReturn(List.of(waiting))
+                .thenReturn(List.of(rejectedMeanwhile));
+        when(bookingRepository.updateWaitingStatuses(eq(List.of(1L)), eq(ownerId), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(0);
+
+        List<BookingStatusResultDto> results = bookingService.updateStatusBookings(ownerId, List.of(1L), true);
+
+        assertEquals(List.of(new BookingStatusResultDto(1L, BookingStatusOutcome.NOT_WAITING, BookingStatus.REJECTED)),
+                results);
+        verify(availabilityIndex, never()).onBookingSaved(anyLong(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void updateStatusBookings_shouldTellOwnUpdatesFromConcurrentIdenticalOnes() {
+        BookingStatusCandidate first = new BookingStatusCandidate(1L, itemId, ownerId, BookingStatus.WAITING,
+                start, end, null);
+        BookingStatusCandidate second = new BookingStatusCandidate(2L, itemId, ownerId, BookingStatus.WAITING,
+                start, end, null);
+        AtomicReference<UUID> ownTransition = new AtomicReference<>();
+        when(bookingRepository.updateWaitingStatuses(eq(List.of(1L, 2L)), eq(ownerId), eq(BookingStatus.APPROVED),
+                any())).thenAnswer(invocation -> {
+                    ownTransition.set(invocation.getArgument(3));
+                    return 1;
+                });
+        when(bookingRepository.findStatusCandidates(any()))
+                .thenReturn(List.of(first, second))
+                .thenAnswer(invocation -> List.of(
+                        new BookingStatusCandidate(1L, itemId, ownerId, BookingStatus.APPROVED, start, end,
+                                ownTransition.get()),
+                        new BookingStatusCandidate(2L, itemId, ownerId, BookingStatus.APPROVED, start, end,
+                                UUID.randomUUID())));
+
+        List<BookingStatusResultDto> results = bookingService.updateStatusBookings(ownerId, List.of(1L, 2L), true);
+
+        assertEquals(List.of(
+                new BookingStatusResultDto(1L, BookingStatusOutcome.UPDATED, BookingStatus.APPROVED),
+                new BookingStatusResultDto(2L, BookingStatusOutcome.NOT_WAITING, BookingStatus.APPROVED)), results);
+        verify(availabilityIndex, times(1)).onBookingSaved(anyLong(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void updateStatusBookings_shouldThrowWhenBatchIsEmpty() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.updateStatusBookings(ownerId, List.of(), true));
     }
 
     @Test
@@ -251,148 +380,209 @@ class BookingServiceTest {
 
     @Test
     void getBookingsByState_shouldReturnAllBookings() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(userId))
-                .thenReturn(List.of(booking));
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(userId, ScrollPosition.keyset(), Limit.of(10)))
+                .thenReturn(lastWindow());
 
-        List<BookingDto> result = bookingService.getBookingsByState(userId, BookingState.ALL);
+        BookingPageDto result = bookingService.getBookingsByState(userId, BookingState.ALL, null, 10);
 
-        assertEquals(1, result.size());
-        assertEquals(bookingId, result.get(0).getId());
+        assertEquals(1, result.getBookings().size());
+        assertEquals(bookingId, result.getBookings().get(0).getId());
+        assertNull(result.getNextCursor());
     }
 
     @Test
     void getBookingsByState_shouldReturnWaitingBookings() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING))
-                .thenReturn(List.of(booking));
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDescIdDesc(eq(userId), eq(BookingStatus.WAITING),
+                any(ScrollPosition.class), any(Limit.class)))
+                .thenReturn(lastWindow());
 
-        List<BookingDto> result = bookingService.getBookingsByState(userId, BookingState.WAITING);
+        BookingPageDto result = bookingService.getBookingsByState(userId, BookingState.WAITING, null, 10);
 
-        assertEquals(1, result.size());
+        assertEquals(1, result.getBookings().size());
     }
 
     @Test
     void getBookingsByState_shouldReturnRejectedBookings() {
         booking.setStatus(BookingStatus.REJECTED);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStatusInOrderByStartDesc(userId,
-                List.of(BookingStatus.REJECTED, BookingStatus.CANCELED)))
-                .thenReturn(List.of(booking));
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(bookingRepository.findAllByBookerIdAndStatusInOrderByStartDescIdDesc(eq(userId),
+                eq(List.of(BookingStatus.REJECTED, BookingStatus.CANCELED)), any(ScrollPosition.class),
+                any(Limit.class)))
+                .thenReturn(lastWindow());
 
-        List<BookingDto> result = bookingService.getBookingsByState(userId, BookingState.REJECTED);
+        BookingPageDto result = bookingService.getBookingsByState(userId, BookingState.REJECTED, null, 10);
 
-        assertEquals(1, result.size());
+        assertEquals(1, result.getBookings().size());
     }
 
     @Test
     void getBookingsByState_shouldReturnCurrentBookings() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findCurrentBookings(userId)).thenReturn(List.of(booking));
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(bookingRepository.findAllByBookerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDescIdDesc(eq(userId),
+                any(LocalDateTime.class), any(LocalDateTime.class), any(ScrollPosition.class), any(Limit.class)))
+                .thenReturn(lastWindow());
 
-        List<BookingDto> result = bookingService.getBookingsByState(userId, BookingState.CURRENT);
+        BookingPageDto result = bookingService.getBookingsByState(userId, BookingState.CURRENT, null, 10);
 
-        assertEquals(1, result.size());
+        assertEquals(1, result.getBookings().size());
     }
 
     @Test
     void getBookingsByState_shouldReturnFutureBookings() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(eq(userId), any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDescIdDesc(eq(userId),
+                any(LocalDateTime.class), any(ScrollPosition.class), any(Limit.class)))
+                .thenReturn(lastWindow());
 
-        List<BookingDto> result = bookingService.getBookingsByState(userId, BookingState.FUTURE);
+        BookingPageDto result = bookingService.getBookingsByState(userId, BookingState.FUTURE, null, 10);
 
-        assertEquals(1, result.size());
+        assertEquals(1, result.getBookings().size());
+    }
+
+    @Test
+    void getBookingsByState_shouldReturnCursorWhenMoreBookingsExist() {
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(userId, ScrollPosition.keyset(), Limit.of(1)))
+                .thenReturn(Window.from(List.of(booking), index -> ScrollPosition.keyset(), true));
+
+        BookingPageDto result = bookingService.getBookingsByState(userId, BookingState.ALL, null, 1);
+
+        assertNotNull(result.getNextCursor());
+    }
+
+    @Test
+    void getBookingsByState_shouldUseCursorAsKeysetPosition() {
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+        when(bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(userId, ScrollPosition.keyset(), Limit.of(1)))
+                .thenReturn(Window.from(List.of(booking), index -> ScrollPosition.keyset(), true));
+        String cursor = bookingService.getBookingsByState(userId, BookingState.ALL, null, 1).getNextCursor();
+
+        ScrollPosition expectedPosition = ScrollPosition.forward(Map.of("start", start, "id", bookingId));
+        when(bookingRepository.findAllByBookerIdOrderByStartDescIdDesc(userId, expectedPosition, Limit.of(1)))
+                .thenReturn(lastWindow());
+
+        BookingPageDto result = bookingService.getBookingsByState(userId, BookingState.ALL, cursor, 1);
+
+        assertEquals(1, result.getBookings().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getBookingsByState_shouldThrowWhenCursorMalformed() {
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookingsByState(userId, BookingState.ALL, "not-a-cursor", 10));
+    }
+
+    @Test
+    void getBookingsByState_shouldThrowWhenSizeNotPositive() {
+        when(userService.validateUserExist(userId)).thenReturn(booker);
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookingsByState(userId, BookingState.ALL, null, 0));
     }
 
     @Test
     void getBookingsForOwner_shouldReturnAllBookings() {
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(ownerId)).thenReturn(List.of(item));
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(ownerId))
-                .thenReturn(List.of(booking));
+        when(userService.validateUserExist(ownerId)).thenReturn(owner);
+        when(itemRepository.existsByOwnerId(ownerId)).thenReturn(true);
+        when(bookingRepository.findAllByItemOwnerIdOrderByStartDescIdDesc(ownerId, ScrollPosition.keyset(),
+                Limit.of(10)))
+                .thenReturn(lastWindow());
 
-        List<BookingDto> result = bookingService.getBookingsForOwner(ownerId, BookingState.ALL);
+        BookingPageDto result = bookingService.getBookingsForOwner(ownerId, BookingState.ALL, null, 10);
 
-        assertEquals(1, result.size());
-        assertEquals(bookingId, result.get(0).getId());
+        assertEquals(1, result.getBookings().size());
+        assertEquals(bookingId, result.getBookings().get(0).getId());
     }
 
     @Test
     void getBookingsForOwner_shouldThrowWhenNoItems() {
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(ownerId)).thenReturn(List.of());
+        when(userService.validateUserExist(ownerId)).thenReturn(owner);
+        when(itemRepository.existsByOwnerId(ownerId)).thenReturn(false);
 
         assertThrows(NotFoundException.class,
-                () -> bookingService.getBookingsForOwner(ownerId, BookingState.ALL));
+                () -> bookingService.getBookingsForOwner(ownerId, BookingState.ALL, null, 10));
     }
 
     @Test
     void getBookingsForOwner_shouldReturnWaitingBookings() {
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(ownerId)).thenReturn(List.of(item));
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.WAITING))
-                .thenReturn(List.of(booking));
+        when(userService.validateUserExist(ownerId)).thenReturn(owner);
+        when(itemRepository.existsByOwnerId(ownerId)).thenReturn(true);
+        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(eq(ownerId),
+                eq(BookingStatus.WAITING), any(ScrollPosition.class), any(Limit.class)))
+                .thenReturn(lastWindow());
 
-        List<BookingDto> result = bookingService.getBookingsForOwner(ownerId, BookingState.WAITING);
+        BookingPageDto result = bookingService.getBookingsForOwner(ownerId, BookingState.WAITING, null, 10);
 
-        assertEquals(1, result.size());
+        assertEquals(1, result.getBookings().size());
     }
 
     @Test
     void getBookingsForOwner_shouldReturnRejectedBookings() {
         booking.setStatus(BookingStatus.REJECTED);
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(ownerId)).thenReturn(List.of(item));
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.REJECTED))
-                .thenReturn(List.of(booking));
+        when(userService.validateUserExist(ownerId)).thenReturn(owner);
+        when(itemRepository.existsByOwnerId(ownerId)).thenReturn(true);
+        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDescIdDesc(eq(ownerId),
+                eq(BookingStatus.REJECTED), any(ScrollPosition.class), any(Limit.class)))
+                .thenReturn(lastWindow());
 
-        List<BookingDto> result = bookingService.getBookingsForOwner(ownerId, BookingState.REJECTED);
+        BookingPageDto result = bookingService.getBookingsForOwner(ownerId, BookingState.REJECTED, null, 10);
 
-        assertEquals(1, result.size());
+        assertEquals(1, result.getBookings().size());
     }
 
     @Test
     void getBookingsForOwner_shouldReturnCurrentBookings() {
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(ownerId)).thenReturn(List.of(item));
-        when(bookingRepository.findCurrentBookingsByOwner(ownerId)).thenReturn(List.of(booking));
+        when(userService.validateUserExist(ownerId)).thenReturn(owner);
+        when(itemRepository.existsByOwnerId(ownerId)).thenReturn(true);
+        when(bookingRepository.findAllByItemOwnerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDescIdDesc(eq(ownerId),
+                any(LocalDateTime.class), any(LocalDateTime.class), any(ScrollPosition.class), any(Limit.class)))
+                .thenReturn(lastWindow());
 
-        List<BookingDto> result = bookingService.getBookingsForOwner(ownerId, BookingState.CURRENT);
+        BookingPageDto result = bookingService.getBookingsForOwner(ownerId, BookingState.CURRENT, null, 10);
 
-        assertEquals(1, result.size());
+        assertEquals(1, result.getBookings().size());
     }
 
     @Test
     void getBookingsForOwner_shouldReturnFutureBookings() {
-        LocalDateTime fixedNow = LocalDateTime.now();
+        when(userService.validateUserExist(ownerId)).thenReturn(owner);
+        when(itemRepository.existsByOwnerId(ownerId)).thenReturn(true);
 
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(ownerId)).thenReturn(List.of(item));
-
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(
+        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDescIdDesc(
                 eq(ownerId),
-                any(LocalDateTime.class)
-        )).thenReturn(List.of(booking));
+                any(LocalDateTime.class),
+                any(ScrollPosition.class),
+                any(Limit.class)
+        )).thenReturn(lastWindow());
 
-        List<BookingDto> result = bookingService.getBookingsForOwner(ownerId, BookingState.FUTURE);
+        BookingPageDto result = bookingService.getBookingsForOwner(ownerId, BookingState.FUTURE, null, 10);
 
-        assertEquals(1, result.size());
+        assertEquals(1, result.getBookings().size());
     }
 
     @Test
     void getBookingsForOwner_shouldReturnPastBookings() {
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(ownerId)).thenReturn(List.of(item));
+        when(userService.validateUserExist(ownerId)).thenReturn(owner);
+        when(itemRepository.existsByOwnerId(ownerId)).thenReturn(true);
 
-        when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(
+        when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDescIdDesc(
                 eq(ownerId),
-                any(LocalDateTime.class)
-        )).thenReturn(List.of(booking));
+                any(LocalDateTime.class),
+                any(ScrollPosition.class),
+                any(Limit.class)
+        )).thenReturn(lastWindow());
+
+        BookingPageDto result = bookingService.getBookingsForOwner(ownerId, BookingState.PAST, null, 10);
 
-        List<BookingDto> result = bookingService.getBookingsForOwner(ownerId, BookingState.PAST);
+        assertEquals(1, result.getBookings().size());
+    }
 
-        assertEquals(1, result.size());
+    private Window<Booking> lastWindow() {
+        return Window.from(List.of(booking), index -> ScrollPosition.keyset());
     }
 }
@@ -0,0 +1,134 @@
+package ru.practicum.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.InMemoryItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private InMemoryItemSearchEngine searchEngine;
+
+    private final User owner = new User(1L, "Owner", "owner@example.com");
+
+    @BeforeEach
+    void setUp() {
+        searchEngine = new InMemoryItemSearchEngine(jdbcTemplate, 2);
+        searchEngine.onItemSaved(new Item(1L, "Дрель", "Мощная дрель", true, owner, null));
+        searchEngine.onItemSaved(new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, owner, null));
+        searchEngine.onItemSaved(new Item(3L, "Набор бит", "Подходит для любой дрели", true, owner, null));
+    }
+
+    @Test
+    void search_shouldFindBySubstringIgnoringCase() {
+        List<Item> result = searchEngine.search("РЕЛЬ");
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+    }
+
+    @Test
+    void search_shouldRankNameMatchesFirstAndApplyLimit() {
+        searchEngine.onItemSaved(new Item(4L, "Дрель ударная", "Описание", true, owner, null));
+
+        List<Item> result = searchEngine.search("дрел");
+
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(4L, result.get(1).getId());
+    }
+
+    @Test
+    void search_shouldMatchPhraseAcrossTokens() {
+        List<Item> result = searchEngine.search("ная дре");
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+    }
+
+    @Test
+    void onItemSaved_shouldReindexUpdatedItem() {
+        searchEngine.onItemSaved(new Item(1L, "Перфоратор", "Мощный", true, owner, null));
+
+        assertTrue(searchEngine.search("мощная").isEmpty());
+        assertEquals(1L, searchEngine.search("перфор").get(0).getId());
+    }
+
+    @Test
+    void onItemSaved_shouldRemoveUnavailableItem() {
+        searchEngine.onItemSaved(new Item(2L, "Отвертка", "Аккумуляторная отвертка", false, owner, null));
+
+        assertTrue(searchEngine.search("отвертка").isEmpty());
+
+        searchEngine.onItemSaved(new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, owner, null));
+
+        assertEquals(1, searchEngine.search("отвертка").size());
+    }
+
+    @Test
+    void onItemSaved_shouldApplyChangeOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchEngine.onItemSaved(new Item(4L, "Пила", "Ножовка по дереву", true, owner, null));
+
+            assertTrue(searchEngine.search("пила").isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(4L, searchEngine.search("пила").get(0).getId());
+    }
+
+    @Test
+    void onItemSaved_shouldIgnoreRolledBackChange() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchEngine.onItemSaved(new Item(1L, "Перфоратор", "Мощный", true, owner, null));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(searchEngine.search("перфор").isEmpty());
+        assertEquals(1L, searchEngine.search("дрель").get(0).getId());
+    }
+
+    @Test
+    void onOwnerDeleted_shouldRemoveOwnerItemsAfterCommit() {
+        when(jdbcTemplate.queryForList("SELECT id FROM items WHERE owner_id = ?", Long.class, owner.getId()))
+                .thenReturn(List.of(1L, 3L));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchEngine.onOwnerDeleted(owner.getId());
+
+            assertEquals(2, searchEngine.search("дрел").size());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(searchEngine.search("дрел").isEmpty());
+        assertEquals(2L, searchEngine.search("отвертка").get(0).getId());
+    }
+}
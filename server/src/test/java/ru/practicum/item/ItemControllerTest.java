@@ -5,15 +5,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
+import ru.practicum.shareit.item.dto.CalendarRunDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.model.Occupancy;
 import ru.practicum.shareit.item.service.ItemService;
 
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
@@ -22,6 +28,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,6 +46,7 @@ class ItemControllerTest {
     private ItemService itemService;
 
     private final Long userId = 1L;
+    private final String itemVersion = "3.1.0.0.0.0";
     private final Long itemId = 1L;
     private final Long commentId = 1L;
 
@@ -69,15 +78,30 @@ class ItemControllerTest {
 
     @Test
     void getItem_shouldReturnItemById() throws Exception {
-        when(itemService.findById(itemId)).thenReturn(outputItemDto);
+        when(itemService.getItemVersion(itemId)).thenReturn(itemVersion);
+        when(itemService.findById(itemId, itemVersion)).thenReturn(outputItemDto);
 
         mvc.perform(get("/items/" + itemId))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3.1.0.0.0.0\""))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
                 .andExpect(jsonPath("$.id").value(itemId))
                 .andExpect(jsonPath("$.name").value("Item name"))
                 .andExpect(jsonPath("$.description").value("Item description"));
 
-        verify(itemService).findById(itemId);
+        verify(itemService).findById(itemId, itemVersion);
+    }
+
+    @Test
+    void getItem_shouldReturnNotModifiedWhenVersionMatches() throws Exception {
+        when(itemService.getItemVersion(itemId)).thenReturn(itemVersion);
+
+        mvc.perform(get("/items/" + itemId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3.1.0.0.0.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(itemService, never()).findById(itemId, itemVersion);
     }
 
     @Test
@@ -94,6 +118,18 @@ class ItemControllerTest {
         verify(itemService).getAllOwnerItems(userId);
     }
 
+    @Test
+    void getAllUserItems_shouldReturnNotModifiedWhenVersionMatches() throws Exception {
+        when(itemService.getOwnerItemsVersion(userId)).thenReturn("2.5.7.1.0.1.0.0");
+
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2.5.7.1.0.1.0.0\""))
+                .andExpect(status().isNotModified());
+
+        verify(itemService, never()).getAllOwnerItems(userId);
+    }
+
     @Test
     void updateItem_shouldReturnUpdatedItem() throws Exception {
         when(itemService.update(itemId, userId, updateItemDto)).thenReturn(updatedItemDto);
@@ -126,6 +162,41 @@ class ItemControllerTest {
         verify(itemService).searchItems(searchText);
     }
 
+    @Test
+    void getAvailability_shouldReturnAvailabilityForPeriod() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(1);
+        when(itemService.getAvailability(itemId, start, end))
+                .thenReturn(new ItemAvailabilityDto(itemId, start, end, false, start.plusDays(3)));
+
+        mvc.perform(get("/items/" + itemId + "/availability")
+                        .param("start", "2030-01-01 10:00:00")
+                        .param("end", "2030-01-02 10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(itemId))
+                .andExpect(jsonPath("$.free").value(false))
+                .andExpect(jsonPath("$.nextFreeStart").value("2030-01-04T10:00:00"));
+    }
+
+    @Test
+    void getOwnerCalendar_shouldReturnRunLengthEncodedIntervals() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(3);
+        when(itemService.getOwnerCalendar(userId, from, to)).thenReturn(List.of(new ItemCalendarDto(itemId, List.of(
+                new CalendarRunDto(Occupancy.FREE, from, from.plusDays(1)),
+                new CalendarRunDto(Occupancy.BUSY, from.plusDays(1), to)))));
+
+        mvc.perform(get("/items/calendar")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("from", "2030-01-01 00:00:00")
+                        .param("to", "2030-01-04 00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].itemId").value(itemId))
+                .andExpect(jsonPath("$[0].runs[0].state").value("FREE"))
+                .andExpect(jsonPath("$[0].runs[1].state").value("BUSY"))
+                .andExpect(jsonPath("$[0].runs[1].end").value("2030-01-04T00:00:00"));
+    }
+
     @Test
     void addComment_shouldReturnCreatedComment() throws Exception {
         when(itemService.addComment(userId, itemId, createCommentDto)).thenReturn(commentDto);
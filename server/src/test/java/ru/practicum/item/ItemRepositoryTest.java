@@ -4,7 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dal.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -12,6 +14,7 @@ import ru.practicum.shareit.user.dal.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -19,6 +22,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 class ItemRepositoryTest {
+    private static final Limit LIMIT = Limit.of(100);
 
     @Autowired
     private ItemRepository itemRepository;
@@ -43,6 +47,7 @@ class ItemRepositoryTest {
         request = new ItemRequest();
         request.setDescription("Нужна дрель");
         request.setRequester(requester);
+        request.setCreatedTime(LocalDateTime.now());
         request = itemRequestRepository.save(request);
 
         item1 = new Item();
@@ -63,17 +68,27 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findAllByOwnerId_shouldReturnOwnerItems() {
-        List<Item> result = itemRepository.findAllByOwnerId(owner.getId());
+    void findAllDtosByOwnerId_shouldReturnOwnerItems() {
+        List<ItemDto> result = itemRepository.findAllDtosByOwnerId(owner.getId());
 
         assertEquals(2, result.size());
         assertTrue(result.stream().anyMatch(i -> i.getName().equals("Дрель")));
-        assertTrue(result.stream().anyMatch(i -> i.getName().equals("Аккумуляторная отвертка")));
+        assertTrue(result.stream().anyMatch(i -> i.getName().equals("Аккумуляторная отвертка")
+                && request.getId().equals(i.getRequestId())));
+    }
+
+    @Test
+    void findAllDtosByRequestIdIn_shouldReturnRequestItems() {
+        List<ItemDto> result = itemRepository.findAllDtosByRequestIdIn(List.of(request.getId()));
+
+        assertEquals(1, result.size());
+        assertEquals("Аккумуляторная отвертка", result.get(0).getName());
+        assertEquals(request.getId(), result.get(0).getRequestId());
     }
 
     @Test
     void search_shouldFindAvailableItemsByText() {
-        List<Item> result = itemRepository.search("дрель");
+        List<Item> result = itemRepository.search("дрель", LIMIT);
 
         assertEquals(1, result.size());
         assertEquals("Дрель", result.get(0).getName());
@@ -88,19 +103,36 @@ class ItemRepositoryTest {
         unavailableItem.setOwner(owner);
         itemRepository.save(unavailableItem);
 
-        List<Item> result = itemRepository.search("дрель");
+        List<Item> result = itemRepository.search("дрель", LIMIT);
 
         assertEquals(1, result.size()); // Находит только доступную дрель
     }
 
     @Test
     void search_shouldBeCaseInsensitive() {
-        List<Item> result = itemRepository.search("ДРеЛь");
+        List<Item> result = itemRepository.search("ДРеЛь", LIMIT);
 
         assertEquals(1, result.size());
         assertEquals("Дрель", result.get(0).getName());
     }
 
+    @Test
+    void search_shouldRankNameMatchesFirstAndApplyLimit() {
+        Item descriptionMatch = new Item();
+        descriptionMatch.setName("Набор бит");
+        descriptionMatch.setDescription("Подходит для любой дрели");
+        descriptionMatch.setAvailable(true);
+        descriptionMatch.setOwner(owner);
+        itemRepository.save(descriptionMatch);
+
+        List<Item> result = itemRepository.search("дрел", LIMIT);
+        List<Item> limited = itemRepository.search("дрел", Limit.of(1));
+
+        assertEquals(2, result.size());
+        assertEquals("Дрель", result.get(0).getName());
+        assertEquals(1, limited.size());
+    }
+
     @Test
     void findByItemRequestIdOrderByIdDesc_shouldReturnItemsForRequest() {
         List<Item> result = itemRepository.findByItemRequestIdOrderByIdDesc(request.getId());
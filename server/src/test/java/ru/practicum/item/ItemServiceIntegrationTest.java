@@ -3,6 +3,8 @@ package ru.practicum.item;
 import jakarta.persistence.EntityManager;
 import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,12 +17,15 @@ import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dal.CommentRepository;
 import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.CalendarRunDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.Occupancy;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dal.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -33,7 +38,7 @@ import java.util.List;
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ActiveProfiles("test")
 @Transactional
 @Slf4j
@@ -152,17 +157,68 @@ public class ItemServiceIntegrationTest {
         comment.setCreated(LocalDateTime.now());
         commentRepository.save(comment);
 
-        ItemDto result = itemService.findById(freshItem.getId());
+        ItemDto result = itemService.findById(freshItem.getId(), itemService.getItemVersion(freshItem.getId()));
 
         assertEquals(freshItem.getId(), result.getId());
         assertEquals(1, result.getComments().size());
         assertEquals("Great item!", result.getComments().get(0).getText());
     }
 
+    @Test
+    void findById_shouldServeCachedItemUntilUpdated() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        String version = itemService.getItemVersion(item.getId());
+        itemService.findById(item.getId(), version);
+        entityManager.clear();
+        statistics.clear();
+
+        ItemDto cached = itemService.findById(item.getId(), version);
+
+        assertEquals("Item", cached.getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        UpdateItemDto updateDto = new UpdateItemDto();
+        updateDto.setName("Renamed");
+        itemService.update(item.getId(), owner.getId(), updateDto);
+
+        assertEquals("Renamed", itemService.findById(item.getId(), itemService.getItemVersion(item.getId())).getName());
+    }
+
+    @Test
+    void findById_shouldReloadCachedItemWhenVersionChangesWithoutEviction() {
+        String version = itemService.getItemVersion(item.getId());
+        assertNull(itemService.findById(item.getId(), version).getLastBooking());
+
+        Booking booking = new Booking();
+        booking.setStart(LocalDateTime.now().minusDays(2));
+        booking.setEnd(LocalDateTime.now().minusDays(1));
+        booking.setItem(itemRepository.findById(item.getId()).orElseThrow());
+        booking.setBooker(userRepository.findById(booker.getId()).orElseThrow());
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+        String booked = itemService.getItemVersion(item.getId());
+
+        assertNotEquals(version, booked);
+        assertEquals(booking.getId(), itemService.findById(item.getId(), booked).getLastBooking().getId());
+    }
+
+    @Test
+    void findById_shouldNotExposeCachedInstance() {
+        String version = itemService.getItemVersion(item.getId());
+        ItemDto first = itemService.findById(item.getId(), version);
+        first.setName("Changed");
+        first.getComments().add(new CommentDto(1L, "Injected", "Nobody", LocalDateTime.now()));
+
+        ItemDto second = itemService.findById(item.getId(), version);
+
+        assertEquals("Item", second.getName());
+        assertTrue(second.getComments().isEmpty());
+    }
+
     @Test
     void findById_shouldThrowWhenItemNotFound() {
         assertThrows(NotFoundException.class,
-                () -> itemService.findById(999L));
+                () -> itemService.findById(999L, "0"));
     }
 
     @Test
@@ -247,6 +303,15 @@ public class ItemServiceIntegrationTest {
         assertEquals(1, result.get(0).getComments().size());
     }
 
+    @Test
+    void getAllOwnerItems_shouldUseConstantNumberOfStatements() {
+        long fewItemsStatements = countOwnerItemsStatements(2);
+        long manyItemsStatements = countOwnerItemsStatements(20);
+
+        assertTrue(fewItemsStatements > 0);
+        assertEquals(fewItemsStatements, manyItemsStatements);
+    }
+
     @Test
     void searchItems_shouldReturnMatchingItems() {
         userRepository.findById(owner.getId()).orElseThrow();
@@ -299,6 +364,102 @@ public class ItemServiceIntegrationTest {
         assertEquals("Great item!", result.getText());
     }
 
+    @Test
+    void getItemVersion_shouldChangeWhenItemBookingsOrCommentsChange() {
+        String initial = itemService.getItemVersion(item.getId());
+
+        UpdateItemDto updateDto = new UpdateItemDto();
+        updateDto.setName("Renamed");
+        itemService.update(item.getId(), owner.getId(), updateDto);
+        String updated = itemService.getItemVersion(item.getId());
+
+        Booking booking = new Booking();
+        booking.setStart(LocalDateTime.now().minusDays(2));
+        booking.setEnd(LocalDateTime.now().minusDays(1));
+        booking.setItem(itemRepository.findById(item.getId()).orElseThrow());
+        booking.setBooker(userRepository.findById(booker.getId()).orElseThrow());
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+        String booked = itemService.getItemVersion(item.getId());
+
+        itemService.addComment(booker.getId(), item.getId(), new CreateCommentDto("Great item!"));
+        String commented = itemService.getItemVersion(item.getId());
+
+        assertNotEquals(initial, updated);
+        assertNotEquals(updated, booked);
+        assertNotEquals(booked, commented);
+        assertEquals(commented, itemService.getItemVersion(item.getId()));
+    }
+
+    @Test
+    void getOwnerItemsVersion_shouldChangeWhenOwnerAddsItem() {
+        String initial = itemService.getOwnerItemsVersion(owner.getId());
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Saw");
+        itemDto.setDescription("Hand saw");
+        itemDto.setAvailable(true);
+
+        itemService.create(owner.getId(), itemDto);
+        String created = itemService.getOwnerItemsVersion(owner.getId());
+
+        assertNotEquals(initial, created);
+        assertEquals(created, itemService.getOwnerItemsVersion(owner.getId()));
+        assertThrows(NotFoundException.class, () -> itemService.getOwnerItemsVersion(999L));
+    }
+
+    @Test
+    void getCalendar_shouldMergeAdjacentBookingsAndClampToWindow() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        bookingRepository.save(new Booking(null, from.minusDays(2), from.plusDays(1), item, booker,
+                BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, from.plusDays(3), from.plusDays(4), item, booker,
+                BookingStatus.WAITING));
+        bookingRepository.save(new Booking(null, from.plusDays(4), from.plusDays(5), item, booker,
+                BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, from.plusDays(6), from.plusDays(7), item, booker,
+                BookingStatus.REJECTED));
+        bookingRepository.save(new Booking(null, from.plusDays(9), from.plusDays(12), item, booker,
+                BookingStatus.APPROVED));
+        entityManager.flush();
+        entityManager.clear();
+
+        ItemCalendarDto calendar = itemService.getCalendar(item.getId(), from, to);
+
+        assertEquals(item.getId(), calendar.getItemId());
+        assertEquals(List.of(
+                new CalendarRunDto(Occupancy.BUSY, from, from.plusDays(1)),
+                new CalendarRunDto(Occupancy.FREE, from.plusDays(1), from.plusDays(3)),
+                new CalendarRunDto(Occupancy.BUSY, from.plusDays(3), from.plusDays(5)),
+                new CalendarRunDto(Occupancy.FREE, from.plusDays(5), from.plusDays(9)),
+                new CalendarRunDto(Occupancy.BUSY, from.plusDays(9), to)), calendar.getRuns());
+    }
+
+    @Test
+    void getCalendar_shouldThrowWhenItemNotFound() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+
+        assertThrows(NotFoundException.class, () -> itemService.getCalendar(-1L, from, from.plusDays(1)));
+    }
+
+    @Test
+    void getOwnerCalendar_shouldReturnCalendarForEveryOwnerItem() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        Item idleItem = itemRepository.save(new Item("Idle", "Never booked", true, owner, null));
+        bookingRepository.save(new Booking(null, from.plusDays(2), from.plusDays(3), item, booker,
+                BookingStatus.APPROVED));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ItemCalendarDto> calendars = itemService.getOwnerCalendar(owner.getId(), from, to);
+
+        assertEquals(2, calendars.size());
+        assertEquals(3, calendars.get(0).getRuns().size());
+        assertEquals(idleItem.getId(), calendars.get(1).getItemId());
+        assertEquals(List.of(new CalendarRunDto(Occupancy.FREE, from, to)), calendars.get(1).getRuns());
+    }
+
     @Test
     void addComment_shouldThrowWhenNoBooking() {
         User freshBooker = userRepository.findById(booker.getId()).orElseThrow();
@@ -361,4 +522,30 @@ public class ItemServiceIntegrationTest {
         assertThrows(NotFoundException.class,
                 () -> itemService.validateItemExist(999L));
     }
+
+    private long countOwnerItemsStatements(int itemCount) {
+        User itemsOwner = userRepository.save(new User("Owner" + itemCount, "owner" + itemCount + "@mail.ru"));
+        User freshBooker = userRepository.findById(booker.getId()).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < itemCount; i++) {
+            Item ownerItem = itemRepository.save(new Item("Item " + i, "Description", true, itemsOwner, null));
+            commentRepository.save(new Comment(null, "Comment " + i, ownerItem, freshBooker, now));
+            bookingRepository.save(new Booking(null, now.minusDays(2), now.minusDays(1), ownerItem, freshBooker,
+                    BookingStatus.APPROVED));
+            bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), ownerItem, freshBooker,
+                    BookingStatus.APPROVED));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemDto> result = itemService.getAllOwnerItems(itemsOwner.getId());
+
+        assertEquals(itemCount, result.size());
+        assertTrue(result.stream().allMatch(itemDto -> itemDto.getComments().size() == 1
+                && itemDto.getLastBooking() != null && itemDto.getNextBooking() != null));
+        return statistics.getPrepareStatementCount();
+    }
 }
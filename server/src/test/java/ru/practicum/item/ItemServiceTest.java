@@ -1,5 +1,6 @@
 package ru.practicum.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,32 +8,47 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import ru.practicum.shareit.booking.dal.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingAvailabilityIndex;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dal.CommentRepository;
 import ru.practicum.shareit.item.dal.ItemRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.dal.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.SingleFlight;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.util.Constants.ITEMS_CACHE;
 
 @ExtendWith(MockitoExtension.class)
 class ItemServiceTest {
@@ -47,6 +63,12 @@ class ItemServiceTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private ItemServiceImpl itemService;
@@ -56,6 +78,7 @@ class ItemServiceTest {
     private final Long requestId = 1L;
     private final Long commentId = 1L;
     private final Long bookingId = 1L;
+    private final String itemVersion = "0.0.0.0.0.0";
 
     private final User user = new User(userId, "John", "john@example.com");
     private final ItemRequest itemRequest = new ItemRequest("Need item", user, LocalDateTime.now());
@@ -69,10 +92,16 @@ class ItemServiceTest {
     private final Booking booking = new Booking(bookingId, LocalDateTime.now().minusDays(2),
             LocalDateTime.now().minusDays(1), savedItem, user, BookingStatus.APPROVED);
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(ITEMS_CACHE);
+
     @BeforeEach
     void setUp() {
         itemService = new ItemServiceImpl(itemRepository, userService, bookingRepository,
-                commentRepository, itemRequestRepository);
+                commentRepository, itemRequestRepository, itemSearchEngine, availabilityIndex,
+                new SingleFlight<>("items.find-by-id", 100, meterRegistry),
+                new SingleFlight<>("items.search", 100, meterRegistry),
+                cacheManager, transactionManager);
     }
 
     @Test
@@ -117,11 +146,13 @@ class ItemServiceTest {
 
     @Test
     void findById_shouldReturnItem() {
+        when(itemRepository.findVersionById(eq(itemId), any(LocalDateTime.class))).thenReturn(Optional.of(itemVersion));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(savedItem));
-        when(commentRepository.findByItemId(itemId)).thenReturn(Collections.emptyList());
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(itemId)).thenReturn(Collections.emptyList());
+        when(commentRepository.findAllByItemIdIn(List.of(itemId))).thenReturn(Collections.emptyList());
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(itemId)), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
 
-        ItemDto result = itemService.findById(itemId);
+        ItemDto result = itemService.findById(itemId, itemVersion);
 
         assertEquals(itemId, result.getId());
         assertEquals("Item", result.getName());
@@ -130,22 +161,110 @@ class ItemServiceTest {
 
     @Test
     void findById_shouldReturnItemWithCommentsAndBookings() {
+        when(itemRepository.findVersionById(eq(itemId), any(LocalDateTime.class))).thenReturn(Optional.of(itemVersion));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(savedItem));
-        when(commentRepository.findByItemId(itemId)).thenReturn(List.of(comment));
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(itemId)).thenReturn(List.of(booking));
+        when(commentRepository.findAllByItemIdIn(List.of(itemId))).thenReturn(List.of(comment));
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(itemId)), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking));
 
-        ItemDto result = itemService.findById(itemId);
+        ItemDto result = itemService.findById(itemId, itemVersion);
 
         assertEquals(itemId, result.getId());
         assertEquals(1, result.getComments().size());
         assertEquals(bookingId, result.getLastBooking().getId());
+        assertNull(result.getNextBooking());
+    }
+
+    @Test
+    void findById_shouldServeIndependentCopiesFromCache() {
+        when(itemRepository.findVersionById(eq(itemId), any(LocalDateTime.class))).thenReturn(Optional.of(itemVersion));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(savedItem));
+        when(commentRepository.findAllByItemIdIn(List.of(itemId))).thenReturn(List.of(comment));
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(itemId)), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking));
+
+        ItemDto first = itemService.findById(itemId, itemVersion);
+        first.getComments().clear();
+        first.getLastBooking().getBooker().setName("Changed");
+        ItemDto second = itemService.findById(itemId, itemVersion);
+
+        assertNotSame(first, second);
+        assertEquals(1, second.getComments().size());
+        assertEquals("John", second.getLastBooking().getBooker().getName());
+        verify(itemRepository, times(1)).findById(itemId);
+    }
+
+    @Test
+    void findById_shouldNotServeCachedItemUnderNewerVersion() {
+        when(itemRepository.findVersionById(eq(itemId), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(itemVersion), Optional.of("1.0.0.0.0.0"));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(savedItem), Optional.of(updatedItem));
+        when(commentRepository.findAllByItemIdIn(List.of(itemId))).thenReturn(Collections.emptyList());
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(itemId)), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+
+        assertEquals("Item", itemService.findById(itemId, itemVersion).getName());
+        assertEquals("Updated", itemService.findById(itemId, "1.0.0.0.0.0").getName());
+        assertEquals("Updated", itemService.findById(itemId, "1.0.0.0.0.0").getName());
+        verify(itemRepository, times(2)).findById(itemId);
+    }
+
+    @Test
+    void findById_shouldNotServeEntryFilledAfterConcurrentEviction() {
+        when(itemRepository.findVersionById(eq(itemId), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(itemVersion), Optional.of("1.0.0.0.0.0"));
+        when(itemRepository.findById(itemId)).thenAnswer(invocation -> {
+            cacheManager.getCache(ITEMS_CACHE).evict(itemId);
+            return Optional.of(savedItem);
+        }).thenReturn(Optional.of(updatedItem));
+        when(commentRepository.findAllByItemIdIn(List.of(itemId))).thenReturn(Collections.emptyList());
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(itemId)), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+
+        itemService.findById(itemId, itemVersion);
+
+        assertEquals("Updated", itemService.findById(itemId, "1.0.0.0.0.0").getName());
+    }
+
+    @Test
+    void findById_shouldOpenTransactionOnlyForLoadingCaller() throws Exception {
+        int callers = 4;
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(itemRepository.findVersionById(eq(itemId), any(LocalDateTime.class))).thenReturn(Optional.of(itemVersion));
+        when(itemRepository.findById(itemId)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return Optional.of(savedItem);
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ItemDto> leader = executor.submit(() -> itemService.findById(itemId, itemVersion));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            List<Future<ItemDto>> followers = new ArrayList<>();
+            for (int i = 1; i < callers; i++) {
+                followers.add(executor.submit(() -> itemService.findById(itemId, itemVersion)));
+            }
+            while (meterRegistry.get("shareit.single-flight.requests").tag("name", "items.find-by-id")
+                    .tag("outcome", "coalesced").counter().count() < callers - 1) {
+                Thread.sleep(5);
+            }
+            releaseLoad.countDown();
+
+            ItemDto leaderItem = leader.get(5, TimeUnit.SECONDS);
+            for (Future<ItemDto> follower : followers) {
+                assertNotSame(leaderItem, follower.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        verify(transactionManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
     }
 
     @Test
     void findById_shouldThrowWhenNotFound() {
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(itemRepository.findVersionById(eq(itemId), any(LocalDateTime.class))).thenReturn(Optional.empty());
 
-        assertThrows(NotFoundException.class, () -> itemService.findById(itemId));
+        assertThrows(NotFoundException.class, () -> itemService.findById(itemId, itemVersion));
     }
 
     @Test
@@ -213,9 +332,11 @@ class ItemServiceTest {
     @Test
     void getAllOwnerItems_shouldReturnList() {
         when(userService.validateUserExist(userId)).thenReturn(user);
-        when(itemRepository.findAllByOwnerId(userId)).thenReturn(List.of(savedItem));
-        when(commentRepository.findByItemId(itemId)).thenReturn(Collections.emptyList());
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(itemId)).thenReturn(Collections.emptyList());
+        when(itemRepository.findAllDtosByOwnerId(userId)).thenReturn(List.of(new ItemDto(itemId, savedItem.getName(),
+                savedItem.getDescription(), savedItem.getAvailable(), null)));
+        when(commentRepository.findAllByItemIdIn(List.of(itemId))).thenReturn(Collections.emptyList());
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(itemId)), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
 
         List<ItemDto> result = itemService.getAllOwnerItems(userId);
 
@@ -233,7 +354,7 @@ class ItemServiceTest {
     @Test
     void searchItems_shouldReturnMatchingItems() {
         String searchText = "test";
-        when(itemRepository.search(searchText)).thenReturn(List.of(savedItem));
+        when(itemSearchEngine.search(searchText)).thenReturn(List.of(savedItem));
 
         List<ItemDto> result = itemService.searchItems(searchText);
 
@@ -241,6 +362,87 @@ class ItemServiceTest {
         assertEquals(itemId, result.get(0).getId());
     }
 
+    @Test
+    void searchItems_shouldCoalesceConcurrentIdenticalQueries() throws Exception {
+        int callers = 8;
+        CountDownLatch searchStarted = new CountDownLatch(1);
+        CountDownLatch releaseSearch = new CountDownLatch(1);
+        when(itemSearchEngine.search("дрель")).thenAnswer(invocation -> {
+            searchStarted.countDown();
+            releaseSearch.await(5, TimeUnit.SECONDS);
+            return List.of(savedItem);
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<ItemDto>> leader = executor.submit(() -> itemService.searchItems("дрель"));
+            assertTrue(searchStarted.await(5, TimeUnit.SECONDS));
+            List<Future<List<ItemDto>>> followers = new ArrayList<>();
+            for (int i = 1; i < callers; i++) {
+                followers.add(executor.submit(() -> itemService.searchItems("дрель")));
+            }
+            while (meterRegistry.get("shareit.single-flight.requests").tag("name", "items.search")
+                    .tag("outcome", "coalesced").counter().count() < callers - 1) {
+                Thread.sleep(5);
+            }
+            releaseSearch.countDown();
+
+            ItemDto leaderItem = leader.get(5, TimeUnit.SECONDS).get(0);
+            assertEquals(itemId, leaderItem.getId());
+            for (Future<List<ItemDto>> follower : followers) {
+                ItemDto followerItem = follower.get(5, TimeUnit.SECONDS).get(0);
+                assertEquals(itemId, followerItem.getId());
+                assertNotSame(leaderItem, followerItem);
+            }
+        }
+
+        verify(itemSearchEngine, times(1)).search("дрель");
+        verify(transactionManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        assertEquals(1, meterRegistry.get("shareit.single-flight.requests").tag("name", "items.search")
+                .tag("outcome", "executed").counter().count());
+    }
+
+    @Test
+    void findById_shouldNotKeepFailedFlight() {
+        when(itemRepository.findVersionById(eq(itemId), any(LocalDateTime.class))).thenReturn(Optional.of(itemVersion));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.findById(itemId, itemVersion));
+        assertThrows(NotFoundException.class, () -> itemService.findById(itemId, itemVersion));
+        verify(itemRepository, times(2)).findById(itemId);
+    }
+
+    @Test
+    void getAvailability_shouldReturnNextFreeStartWhenPeriodIsBusy() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(2);
+        LocalDateTime nextFreeStart = start.plusDays(5);
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(availabilityIndex.isFree(itemId, start, end)).thenReturn(false);
+        when(availabilityIndex.nextFreeStart(itemId, start, Duration.ofDays(2))).thenReturn(nextFreeStart);
+
+        ItemAvailabilityDto result = itemService.getAvailability(itemId, start, end);
+
+        assertFalse(result.isFree());
+        assertEquals(nextFreeStart, result.getNextFreeStart());
+    }
+
+    @Test
+    void getAvailability_shouldRejectPeriodThatHasEnded() {
+        LocalDateTime end = LocalDateTime.now().minusDays(1);
+
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(itemId, end.minusDays(1), end));
+        verifyNoInteractions(availabilityIndex);
+    }
+
+    @Test
+    void getAvailability_shouldThrowWhenItemNotFound() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemRepository.existsById(itemId)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.getAvailability(itemId, start, start.plusDays(1)));
+        verifyNoInteractions(availabilityIndex);
+    }
+
     @Test
     void addComment_shouldCreateComment() {
         when(userService.validateUserExist(userId)).thenReturn(user);
@@ -128,6 +128,28 @@ public class ItemControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].name").value("Drill"));
     }
 
+    @Test
+    void getAvailability_shouldReturnBadRequestForPastPeriod() throws Exception {
+        Item item = itemRepository.save(new Item("Drill", "Powerful drill", true, testUser, null));
+
+        mockMvc.perform(get("/items/" + item.getId() + "/availability")
+                        .param("start", "2020-01-01 10:00:00")
+                        .param("end", "2020-01-02 10:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value(400));
+    }
+
+    @Test
+    void getCalendar_shouldReturnBadRequestForInvertedPeriod() throws Exception {
+        Item item = itemRepository.save(new Item("Drill", "Powerful drill", true, testUser, null));
+
+        mockMvc.perform(get("/items/" + item.getId() + "/calendar")
+                        .param("from", "2030-01-02 10:00:00")
+                        .param("to", "2030-01-01 10:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value(400));
+    }
+
     private String toJson(Object object) throws JsonProcessingException {
         return objectMapper.writeValueAsString(object);
     }
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -13,7 +14,9 @@ import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.util.ResourceVersion;
 
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
@@ -87,6 +90,18 @@ class ItemRequestControllerTest {
         verify(itemRequestService).getAllRequestsById(userId);
     }
 
+    @Test
+    void getAllRequestsById_shouldReturnNotModifiedWhenVersionMatches() throws Exception {
+        when(itemRequestService.getRequesterRequestsVersion(userId)).thenReturn("0.1.1.0.1.0");
+
+        mvc.perform(get("/requests")
+                        .header("X-Sharer-User-Id", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0.1.1.0.1.0\""))
+                .andExpect(status().isNotModified());
+
+        verify(itemRequestService, never()).getAllRequestsById(userId);
+    }
+
     @Test
     void getAllRequests_shouldReturnPaginatedRequests() throws Exception {
         when(itemRequestService.findAll(userId, 0, 50))
@@ -106,6 +121,8 @@ class ItemRequestControllerTest {
 
     @Test
     void getRequestById_shouldReturnRequest() throws Exception {
+        when(itemRequestService.getRequestVersion(userId, requestId))
+                .thenReturn(new ResourceVersion("0.0.1.0", LocalDateTime.of(2024, 1, 1, 12, 0)));
         when(itemRequestService.findById(userId, requestId))
                 .thenReturn(itemRequestDto);
 
@@ -4,12 +4,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.dal.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dal.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dal.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.ResourceVersion;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -98,4 +101,28 @@ class ItemRequestRepositoryTest {
         assertEquals(1, result.size());
         assertEquals("Нужен молоток", result.get(0).getDescription());
     }
+
+    @Test
+    void findAllDtos_shouldReturnPageOfNewestRequestsWithRequester() {
+        List<ItemRequestDto> result = itemRequestRepository.findAllDtos(PageRequest.of(0, 2));
+
+        assertEquals(2, result.size());
+        assertEquals("Нужен молоток", result.get(0).getDescription());
+        assertEquals(requester2.getEmail(), result.get(0).getRequester().getEmail());
+        assertEquals("Нужна отвертка", result.get(1).getDescription());
+        assertTrue(result.get(0).getItems().isEmpty());
+    }
+
+    @Test
+    void findVersionById_shouldChangeWhenItemAnswersRequest() {
+        ResourceVersion before = itemRequestRepository.findVersionById(request3.getId()).orElseThrow();
+
+        Item hammer = new Item("Молоток", "Тяжелый молоток", true, requester1, request3);
+        itemRepository.save(hammer);
+
+        ResourceVersion after = itemRequestRepository.findVersionById(request3.getId()).orElseThrow();
+        assertEquals("0.0.0.0", before.tag());
+        assertEquals("0.0.1.0", after.tag());
+        assertTrue(itemRequestRepository.findVersionById(999L).isEmpty());
+    }
 }
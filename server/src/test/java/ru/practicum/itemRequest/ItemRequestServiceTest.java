@@ -7,12 +7,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dal.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dal.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
@@ -20,17 +18,19 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
-import ru.practicum.shareit.user.dal.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,7 +40,7 @@ class ItemRequestServiceTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserService userService;
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
@@ -71,12 +71,12 @@ class ItemRequestServiceTest {
 
     @BeforeEach
     void setUp() {
-        itemRequestService = new ItemRequestServiceImpl(itemRepository, userRepository, itemRequestRepository);
+        itemRequestService = new ItemRequestServiceImpl(itemRepository, userService, itemRequestRepository);
     }
 
     @Test
     void createItemRequest_shouldCreateNewRequest() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userService.validateUserExist(userId)).thenReturn(user);
 
         ArgumentCaptor<ItemRequest> requestCaptor = ArgumentCaptor.forClass(ItemRequest.class);
 
@@ -97,7 +97,7 @@ class ItemRequestServiceTest {
 
     @Test
     void createItemRequest_shouldThrowWhenUserNotFound() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userService.validateUserExist(userId)).thenThrow(new NotFoundException("Пользователь не найден"));
 
         assertThrows(NotFoundException.class,
                 () -> itemRequestService.createItemRequest(userId, createDto));
@@ -105,7 +105,7 @@ class ItemRequestServiceTest {
 
     @Test
     void getAllRequestsById_shouldReturnUserRequests() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userService.validateUserExist(userId)).thenReturn(user);
         when(itemRequestRepository.findAllByRequesterIdOrderByCreatedTimeDesc(userId))
                 .thenReturn(List.of(request));
 
@@ -119,7 +119,7 @@ class ItemRequestServiceTest {
 
     @Test
     void getAllRequestsById_shouldThrowWhenUserNotFound() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userService.validateUserExist(userId)).thenThrow(new NotFoundException("Пользователь не найден"));
 
         assertThrows(NotFoundException.class,
                 () -> itemRequestService.getAllRequestsById(userId));
@@ -129,21 +129,24 @@ class ItemRequestServiceTest {
     void findAll_shouldReturnPaginatedRequests() {
         int from = 0;
         int size = 10;
-        Page<ItemRequest> page = new PageImpl<>(List.of(request));
+        ItemRequestDto requestDto = new ItemRequestDto(requestId, "Need a drill", userId, "User",
+                "user@example.com", request.getCreatedTime());
+        ItemDto itemDto = new ItemDto(5L, "Drill", "Powerful drill", true, requestId);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRequestRepository.findAll(PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "created"))))
-                .thenReturn(page);
+        when(userService.validateUserExist(userId)).thenReturn(user);
+        when(itemRequestRepository.findAllDtos(PageRequest.of(from / size, size))).thenReturn(List.of(requestDto));
+        when(itemRepository.findAllDtosByRequestIdIn(Set.of(requestId))).thenReturn(List.of(itemDto));
 
         List<ItemRequestDto> result = itemRequestService.findAll(userId, from, size);
 
         assertEquals(1, result.size());
         assertEquals(requestId, result.get(0).getId());
+        assertEquals(List.of(itemDto), result.get(0).getItems());
     }
 
     @Test
     void findAll_shouldThrowWhenInvalidPagination() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userService.validateUserExist(userId)).thenReturn(user);
 
         assertThrows(ValidationException.class,
                 () -> itemRequestService.findAll(userId, -1, 10));
@@ -153,7 +156,7 @@ class ItemRequestServiceTest {
 
     @Test
     void findById_shouldReturnRequest() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userService.validateUserExist(userId)).thenReturn(user);
         when(itemRequestRepository.findById(requestId)).thenReturn(Optional.of(request));
 
         ItemRequestDto result = itemRequestService.findById(userId, requestId);
@@ -165,7 +168,7 @@ class ItemRequestServiceTest {
 
     @Test
     void findById_shouldThrowWhenRequestNotFound() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userService.validateUserExist(userId)).thenReturn(user);
         when(itemRequestRepository.findById(requestId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -174,7 +177,7 @@ class ItemRequestServiceTest {
 
     @Test
     void findById_shouldThrowWhenUserNotFound() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userService.validateUserExist(userId)).thenThrow(new NotFoundException("Пользователь не найден"));
 
         assertThrows(NotFoundException.class,
                 () -> itemRequestService.findById(userId, requestId));
@@ -184,27 +187,23 @@ class ItemRequestServiceTest {
     void findAll_shouldReturnRequestsWithItems() {
         int from = 0;
         int size = 10;
-
-        Item item = new Item();
-        item.setId(1L);
-        item.setName("Drill");
-        item.setDescription("Powerful drill");
-        item.setAvailable(true);
-        item.setOwner(user);
-        item.setItemRequest(request);
-
-        request.setItems(List.of(item));
-
-        Page<ItemRequest> page = new PageImpl<>(List.of(request));
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRequestRepository.findAll(PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "created"))))
-                .thenReturn(page);
+        Long otherRequestId = 2L;
+        ItemRequestDto requestDto = new ItemRequestDto(requestId, "Need a drill", userId, "User",
+                "user@example.com", request.getCreatedTime());
+        ItemRequestDto otherRequestDto = new ItemRequestDto(otherRequestId, "Need a hammer", userId, "User",
+                "user@example.com", request.getCreatedTime().minusDays(1));
+
+        when(userService.validateUserExist(userId)).thenReturn(user);
+        when(itemRequestRepository.findAllDtos(PageRequest.of(from / size, size)))
+                .thenReturn(List.of(requestDto, otherRequestDto));
+        when(itemRepository.findAllDtosByRequestIdIn(Set.of(requestId, otherRequestId)))
+                .thenReturn(List.of(new ItemDto(1L, "Drill", "Powerful drill", true, requestId)));
 
         List<ItemRequestDto> result = itemRequestService.findAll(userId, from, size);
 
-        assertEquals(1, result.size());
+        assertEquals(2, result.size());
         assertEquals(1, result.get(0).getItems().size());
         assertEquals("Drill", result.get(0).getItems().get(0).getName());
+        assertTrue(result.get(1).getItems().isEmpty());
     }
 }
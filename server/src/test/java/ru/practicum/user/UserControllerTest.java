@@ -5,18 +5,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.UserController;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.ResourceVersion;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -36,6 +42,7 @@ class UserControllerTest {
     private final UserDto outputUserDto = new UserDto(1L, "name", "email@mail.ru");
     private final UpdateUserDto updateUserDto = new UpdateUserDto(1L, "newName", "new@mail.ru");
     private final UserDto updatedUserDto = new UserDto(1L, "newName", "new@mail.ru");
+    private final ResourceVersion userVersion = new ResourceVersion("2", LocalDateTime.of(2024, 1, 1, 12, 0));
 
     @Test
     void createUser_shouldReturnCreatedUser() throws Exception {
@@ -57,10 +64,12 @@ class UserControllerTest {
 
     @Test
     void getUser_shouldReturnUserById() throws Exception {
+        when(userService.getUserVersion(1L)).thenReturn(userVersion);
         when(userService.getUser(1L)).thenReturn(outputUserDto);
 
         mvc.perform(get("/users/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("name"))
                 .andExpect(jsonPath("$.email").value("email@mail.ru"));
@@ -68,6 +77,17 @@ class UserControllerTest {
         verify(userService).getUser(1L);
     }
 
+    @Test
+    void getUser_shouldReturnNotModifiedWhenVersionMatches() throws Exception {
+        when(userService.getUserVersion(1L)).thenReturn(userVersion);
+
+        mvc.perform(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isNotModified());
+
+        verify(userService, never()).getUser(1L);
+    }
+
     @Test
     void getAllUsers_shouldReturnAllUsers() throws Exception {
         when(userService.getAllUsers()).thenReturn(List.of(outputUserDto));
@@ -96,6 +116,18 @@ class UserControllerTest {
         verify(userService).updateUser(updateUserDto, 1L);
     }
 
+    @Test
+    void updateUser_shouldReturnConflictOnConcurrentModification() throws Exception {
+        when(userService.updateUser(updateUserDto, 1L))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+        mvc.perform(patch("/users/1")
+                        .content(mapper.writeValueAsString(updateUserDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value(409));
+    }
+
     @Test
     void deleteUser_shouldCallDeleteMethod() throws Exception {
         mvc.perform(delete("/users/1"))
@@ -6,6 +6,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.user.dal.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.ConstraintViolations;
 
 import java.util.Optional;
 
@@ -56,8 +57,10 @@ class UserRepositoryTest {
         user2.setName("User 2");
         user2.setEmail("duplicate@example.com");
 
-        assertThrows(DataIntegrityViolationException.class, () -> {
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class, () -> {
             userRepository.saveAndFlush(user2);
         });
+        assertTrue(ConstraintViolations.isViolated(e, "UQ_USER_EMAIL"));
+        assertFalse(ConstraintViolations.isViolated(e, "ex_bookings_item_period"));
     }
 }
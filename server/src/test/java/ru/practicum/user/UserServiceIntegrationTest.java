@@ -4,19 +4,35 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.service.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.DuplicateFieldException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.CreateItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dal.UserRepository;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.ResourceVersion;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.util.Constants.ITEMS_CACHE;
+import static ru.practicum.shareit.util.Constants.USERS_CACHE;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -28,6 +44,24 @@ public class UserServiceIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
         userRepository.deleteAll();
@@ -108,6 +142,17 @@ public class UserServiceIntegrationTest {
                 () -> userService.updateUser(updateDto, savedUser.getId()));
     }
 
+    @Test
+    void updateUser_shouldAllowKeepingOwnEmail() {
+        User savedUser = userRepository.save(new User("OldName", "old@email.ru"));
+        UpdateUserDto updateDto = new UpdateUserDto(savedUser.getId(), "NewName", "old@email.ru");
+
+        UserDto result = userService.updateUser(updateDto, savedUser.getId());
+
+        assertEquals("NewName", result.getName());
+        assertEquals("old@email.ru", result.getEmail());
+    }
+
     @Test
     void deleteUser_shouldRemoveUserFromDatabase() {
         User savedUser = userRepository.save(new User("ToDelete", "delete@me.ru"));
@@ -130,4 +175,161 @@ public class UserServiceIntegrationTest {
     void validateUserExist_shouldThrowWhenUserNotExists() {
         assertThrows(NotFoundException.class, () -> userService.validateUserExist(999L));
     }
+
+    @Test
+    void validateUserExist_shouldCacheFoundUser() {
+        User savedUser = userRepository.save(new User("Cached", "cached@user.ru"));
+
+        userService.validateUserExist(savedUser.getId());
+
+        Cache.ValueWrapper cached = cacheManager.getCache(USERS_CACHE).get(savedUser.getId());
+        assertNotNull(cached);
+        assertEquals(savedUser.getId(), cached.get());
+    }
+
+    @Test
+    void getUserVersion_shouldChangeAfterUpdate() {
+        User savedUser = userRepository.save(new User("Versioned", "versioned@user.ru"));
+        ResourceVersion initial = userService.getUserVersion(savedUser.getId());
+        UpdateUserDto updateDto = new UpdateUserDto();
+        updateDto.setName("Renamed");
+
+        userService.updateUser(updateDto, savedUser.getId());
+
+        assertEquals("0", initial.tag());
+        assertEquals("1", userService.getUserVersion(savedUser.getId()).tag());
+    }
+
+    @Test
+    void updateUser_shouldNotBeHiddenByCachedUser() {
+        User savedUser = userRepository.save(new User("Before", "before@user.ru"));
+        userService.validateUserExist(savedUser.getId());
+        UpdateUserDto updateDto = new UpdateUserDto();
+        updateDto.setName("After");
+
+        userService.updateUser(updateDto, savedUser.getId());
+
+        assertEquals("After", userService.getUser(savedUser.getId()).getName());
+        assertEquals(savedUser.getId(), userService.validateUserExist(savedUser.getId()).getId());
+    }
+
+    @Test
+    void deleteUser_shouldEvictCachedUser() {
+        User savedUser = userRepository.save(new User("Deleted", "deleted@user.ru"));
+        userService.validateUserExist(savedUser.getId());
+
+        userService.deleteUser(savedUser.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.validateUserExist(savedUser.getId()));
+    }
+
+    @Test
+    void deleteUser_shouldEvictCachedItems() {
+        User savedUser = userRepository.save(new User("Deleted", "deleted@user.ru"));
+        cacheManager.getCache(ITEMS_CACHE).put(1L, "cached item");
+
+        userService.deleteUser(savedUser.getId());
+
+        assertNull(cacheManager.getCache(ITEMS_CACHE).get(1L));
+    }
+
+    @Test
+    void deleteUser_shouldReleaseBookedPeriodsInAvailabilityIndex() {
+        User owner = userRepository.save(new User("Owner", "owner@index.ru"));
+        User booker = userRepository.save(new User("Booker", "booker@index.ru"));
+        ItemDto item = itemService.create(owner.getId(), new ItemDto(null, "Drill", "Drill", true, null, null, null,
+                null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        bookingService.create(booker.getId(), new CreateBookingDto(item.getId(), start, end));
+        assertFalse(availabilityIndex.isFree(item.getId(), start, end));
+
+        userService.deleteUser(booker.getId());
+
+        assertTrue(availabilityIndex.isFree(item.getId(), start, end));
+    }
+
+    @Test
+    void deleteUser_shouldReleaseBookedPeriodsOfOwnerItems() {
+        User owner = userRepository.save(new User("Owner", "owner@index.ru"));
+        User booker = userRepository.save(new User("Booker", "booker@index.ru"));
+        ItemDto item = itemService.create(owner.getId(), new ItemDto(null, "Drill", "Drill", true, null, null, null,
+                null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        bookingService.create(booker.getId(), new CreateBookingDto(item.getId(), start, end));
+
+        userService.deleteUser(owner.getId());
+
+        assertTrue(availabilityIndex.isFree(item.getId(), start, end));
+    }
+
+    @Test
+    void listVersions_shouldChangeAfterItemAndBookingWrites() {
+        User owner = userRepository.save(new User("Owner", "owner@versions.ru"));
+        User booker = userRepository.save(new User("Booker", "booker@versions.ru"));
+        String ownerInitial = userService.getOwnerItemsVersion(owner.getId());
+        String bookerInitial = userService.getBookerBookingsVersion(booker.getId());
+
+        ItemDto item = itemService.create(owner.getId(), new ItemDto(null, "Drill", "Drill", true, null));
+        String ownerAfterItem = userService.getOwnerItemsVersion(owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booking = bookingService.create(booker.getId(),
+                new CreateBookingDto(item.getId(), start, start.plusDays(1)));
+        String bookerAfterBooking = userService.getBookerBookingsVersion(booker.getId());
+
+        assertNotEquals(ownerInitial, ownerAfterItem);
+        assertNotEquals(bookerInitial, bookerAfterBooking);
+        assertEquals(ownerAfterItem, userService.getOwnerItemsVersion(owner.getId()));
+
+        bookingService.updateStatusBooking(owner.getId(), booking.getId(), true);
+
+        assertNotEquals(ownerAfterItem, userService.getOwnerItemsVersion(owner.getId()));
+        assertNotEquals(bookerAfterBooking, userService.getBookerBookingsVersion(booker.getId()));
+    }
+
+    @Test
+    void listVersions_shouldAdvanceWhenStoredNextChangeHasPassed() {
+        User owner = userRepository.save(new User("Owner", "owner@versions.ru"));
+        User booker = userRepository.save(new User("Booker", "booker@versions.ru"));
+        ItemDto item = itemService.create(owner.getId(), new ItemDto(null, "Drill", "Drill", true, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booking = bookingService.create(booker.getId(),
+                new CreateBookingDto(item.getId(), start, start.plusDays(1)));
+        bookingService.updateStatusBooking(owner.getId(), booking.getId(), true);
+        String ownerBefore = userService.getOwnerItemsVersion(owner.getId());
+        String bookerBefore = userService.getBookerBookingsVersion(booker.getId());
+
+        jdbcTemplate.update("UPDATE users SET owner_items_next_change = ?, booker_bookings_next_change = ? " +
+                "WHERE id IN (?, ?)", LocalDateTime.now().minusMinutes(1), LocalDateTime.now().minusMinutes(1),
+                owner.getId(), booker.getId());
+        String ownerAdvanced = userService.getOwnerItemsVersion(owner.getId());
+        String bookerAdvanced = userService.getBookerBookingsVersion(booker.getId());
+
+        assertNotEquals(ownerBefore, ownerAdvanced);
+        assertNotEquals(bookerBefore, bookerAdvanced);
+        assertEquals(ownerAdvanced, userService.getOwnerItemsVersion(owner.getId()));
+        assertEquals(bookerAdvanced, userService.getBookerBookingsVersion(booker.getId()));
+    }
+
+    @Test
+    void getRequesterRequestsVersion_shouldChangeWhenRequestIsCreatedAndAnsweredByItem() {
+        User requester = userRepository.save(new User("Requester", "requester@versions.ru"));
+        String initial = userService.getRequesterRequestsVersion(requester.getId());
+
+        ItemRequestDto request = itemRequestService.createItemRequest(requester.getId(),
+                new CreateItemRequestDto("Нужна дрель"));
+        String afterRequest = userService.getRequesterRequestsVersion(requester.getId());
+        itemService.create(requester.getId(), new ItemDto(null, "Drill", "Drill", true, request.getId()));
+
+        assertNotEquals(initial, afterRequest);
+        assertNotEquals(afterRequest, userService.getRequesterRequestsVersion(requester.getId()));
+    }
+
+    @Test
+    void listVersions_shouldThrowWhenUserNotExists() {
+        assertThrows(NotFoundException.class, () -> userService.getOwnerItemsVersion(999L));
+        assertThrows(NotFoundException.class, () -> userService.getBookerBookingsVersion(999L));
+        assertThrows(NotFoundException.class, () -> userService.getRequesterRequestsVersion(999L));
+    }
 }
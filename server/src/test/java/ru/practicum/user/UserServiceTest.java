@@ -1,12 +1,17 @@
 package ru.practicum.user;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.service.BookingAvailabilityIndex;
 import ru.practicum.shareit.exception.DuplicateFieldException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
 import ru.practicum.shareit.user.dal.UserRepository;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -14,13 +19,18 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.service.UserServicelmpl;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.util.Constants.USERS_CACHE;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
@@ -28,6 +38,12 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+
     private UserService userService;
 
     private final UserDto newUserDto = new UserDto(null, "John", "john@example.com");
@@ -37,26 +53,27 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserServicelmpl(userRepository);
+        userService = new UserServicelmpl(userRepository, new ConcurrentMapCacheManager(USERS_CACHE),
+                itemSearchEngine, availabilityIndex);
     }
 
     @Test
     void createUser_shouldCreateNewUser() {
         User expectedToSave = new User(null, "John", "john@example.com");
-        when(userRepository.findAll()).thenReturn(List.of());
-        when(userRepository.save(expectedToSave)).thenReturn(savedUser);
+        when(userRepository.existsByEmail("john@example.com")).thenReturn(false);
+        when(userRepository.saveAndFlush(expectedToSave)).thenReturn(savedUser);
 
         UserDto result = userService.createUser(newUserDto);
 
         assertEquals(1L, result.getId());
         assertEquals("John", result.getName());
-        verify(userRepository).save(expectedToSave);
+        verify(userRepository).saveAndFlush(expectedToSave);
+        verify(userRepository, never()).findAll();
     }
 
     @Test
     void createUser_shouldThrowWhenEmailExists() {
-        User existingUser = new User(2L, "Existing", "existing@example.com");
-        when(userRepository.findAll()).thenReturn(List.of(existingUser));
+        when(userRepository.existsByEmail("existing@example.com")).thenReturn(true);
 
         UserDto duplicateEmailUser = new UserDto(null, "John", "existing@example.com");
 
@@ -85,34 +102,92 @@ class UserServiceTest {
     @Test
     void updateUser_shouldUpdateFields() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(savedUser));
-        when(userRepository.findAll()).thenReturn(List.of());
-        when(userRepository.save(updatedUser)).thenReturn(updatedUser);
+        when(userRepository.existsByEmailAndIdNot("new@example.com", 1L)).thenReturn(false);
+        when(userRepository.saveAndFlush(updatedUser)).thenReturn(updatedUser);
 
         UserDto result = userService.updateUser(updateUserDto, 1L);
 
         assertEquals(1L, result.getId());
         assertEquals("NewName", result.getName());
         assertEquals("new@example.com", result.getEmail());
-        verify(userRepository).save(updatedUser);
+        verify(userRepository).saveAndFlush(updatedUser);
+    }
+
+    @Test
+    void createUser_shouldMapUniqueConstraintViolationToDuplicate() {
+        when(userRepository.existsByEmail("john@example.com")).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("UQ_USER_EMAIL"));
+
+        assertThrows(DuplicateFieldException.class,
+                () -> userService.createUser(newUserDto));
+    }
+
+    @Test
+    void createUser_shouldRethrowOtherIntegrityViolations() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("NULL not allowed", new SQLException(), "NN_USER_NAME"));
+        when(userRepository.existsByEmail("john@example.com")).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(violation);
+
+        DataIntegrityViolationException thrown = assertThrows(DataIntegrityViolationException.class,
+                () -> userService.createUser(newUserDto));
+        assertEquals(violation, thrown);
     }
 
     @Test
     void deleteUser_shouldCallRepository() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(savedUser));
+        when(userRepository.existsById(1L)).thenReturn(true);
 
         userService.deleteUser(1L);
 
+        verify(itemSearchEngine).onOwnerDeleted(1L);
+        verify(availabilityIndex).onUserDeleted(1L);
         verify(userRepository).deleteById(1L);
     }
 
     @Test
-    void validateUserExist_shouldReturnUser() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(savedUser));
+    void validateUserExist_shouldNotCacheUserDeletedDuringCheck() {
+        when(userRepository.existsById(1L)).thenAnswer(invocation -> {
+            userService.deleteUser(1L);
+            return true;
+        }).thenReturn(true).thenReturn(false);
+
+        userService.validateUserExist(1L);
+
+        assertThrows(NotFoundException.class, () -> userService.validateUserExist(1L));
+    }
+
+    @Test
+    void validateUserExist_shouldReturnReference() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(savedUser);
 
         User result = userService.validateUserExist(1L);
 
         assertEquals(1L, result.getId());
-        assertEquals("John", result.getName());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void validateUserExist_shouldCheckExistenceOnlyOnce() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(savedUser);
+
+        userService.validateUserExist(1L);
+        userService.validateUserExist(1L);
+
+        verify(userRepository, times(1)).existsById(1L);
+        verify(userRepository, times(2)).getReferenceById(1L);
+    }
+
+    @Test
+    void validateUserExist_shouldThrowAndNotCacheMissingUser() {
+        when(userRepository.existsById(999L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> userService.validateUserExist(999L));
+        assertThrows(NotFoundException.class, () -> userService.validateUserExist(999L));
+        verify(userRepository, times(2)).existsById(999L);
     }
 
     @Test